@@ -2,17 +2,35 @@ package com.mark.opencvsample;
 
 import android.app.Application;
 
+import org.opencv.android.ResourceImageLoader;
+import org.opencv.core.MatCleaner;
+
 public class App extends Application {
 
+    private static final long IMAGE_CACHE_BYTES = 32L * 1024 * 1024;
+    /**
+     * Mat占用的native内存超过该值时主动触发GC
+     */
+    private static final long MAT_PRESSURE_BYTES = 256L * 1024 * 1024;
+
     private static App app;
+    private final ResourceImageLoader imageLoader = new ResourceImageLoader(IMAGE_CACHE_BYTES);
 
     public static App getApp() {
         return app;
     }
 
+    /**
+     * 资源图片缓存，acquire后需要release
+     */
+    public ResourceImageLoader getImageLoader() {
+        return imageLoader;
+    }
+
     @Override
     public void onCreate() {
         super.onCreate();
         app = this;
+        MatCleaner.setPressureThreshold(MAT_PRESSURE_BYTES);
     }
 }
@@ -27,10 +27,12 @@ import java.util.Date;
 import java.util.List;
 import java.util.ListIterator;
 
-public class CameraActivity extends AppCompatActivity implements CameraBridgeViewBase.CvCameraViewListener2 {
+public class CameraActivity extends AppCompatActivity implements CameraBridgeViewBase.CvCameraViewListener2,
+        CameraView.PictureListener {
 
 
     private static final String TAG = "CAMERA";
+    private static final int BURST_COUNT = 10;
     private List<Camera.Size> mResolutionList;
     private MenuItem[] mEffectMenuItems;
     private SubMenu mColorEffectsMenu;
@@ -50,6 +52,7 @@ public class CameraActivity extends AppCompatActivity implements CameraBridgeVie
 
     private void initData() {
         cameraView.setCvCameraViewListener(this);
+        cameraView.setPictureListener(this);
         callback = new BaseLoaderCallback(this) {
             @Override
             public void onManagerConnected(int status) {
@@ -78,6 +81,9 @@ public class CameraActivity extends AppCompatActivity implements CameraBridgeVie
             case R.id.bt_take_picture:
                 takePicture(view);
                 break;
+            case R.id.bt_burst:
+                takeBurst(view);
+                break;
         }
     }
 
@@ -104,6 +110,8 @@ public class CameraActivity extends AppCompatActivity implements CameraBridgeVie
         super.onDestroy();
         if (cameraView != null) {
             cameraView.disableView();
+            cameraView.setPictureListener(null);
+            cameraView.releasePictureSaver();
         }
     }
 
@@ -113,7 +121,37 @@ public class CameraActivity extends AppCompatActivity implements CameraBridgeVie
         String fileName = App.getApp().getExternalFilesDir(Environment.DIRECTORY_PICTURES) + File.separator +
                 "sample_picture_CV_" + currentDateandTime + ".jpg";
         cameraView.takePicture(fileName);
-        Toast.makeText(App.getApp(), fileName + " saved", Toast.LENGTH_SHORT).show();
+    }
+
+    private void takeBurst(View view) {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+        String currentDateandTime = sdf.format(new Date());
+        String fileNamePrefix = App.getApp().getExternalFilesDir(Environment.DIRECTORY_PICTURES) + File.separator +
+                "sample_burst_CV_" + currentDateandTime + "_";
+        cameraView.takeBurst(BURST_COUNT, fileNamePrefix);
+    }
+
+    /**
+     * 图片写入完成后提示，在保存线程中回调
+     */
+    @Override
+    public void onPictureSaved(final String fileName, final boolean success) {
+        runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                Toast.makeText(App.getApp(), fileName + (success ? " saved" : " failed"), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    @Override
+    public void onBurstSaved(String fileNamePrefix, final int saved, final int count) {
+        runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                Toast.makeText(App.getApp(), saved + "/" + count + " pictures saved", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     @Override
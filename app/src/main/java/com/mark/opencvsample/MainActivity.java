@@ -13,6 +13,7 @@ import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
+import android.util.DisplayMetrics;
 import android.util.Log;
 import android.view.View;
 import android.widget.ImageView;
@@ -20,12 +21,14 @@ import android.widget.SeekBar;
 import android.widget.Toast;
 
 import com.mark.opencvsample.utils.ContentResolverHelper;
+import com.mark.opencvsample.utils.EditSession;
 import com.mark.opencvsample.utils.OpenCVHelper;
 import com.mark.opencvsample.utils.PermissionHelper;
 
 import org.opencv.android.OpenCVLoader;
 import org.opencv.android.Utils;
 import org.opencv.core.Mat;
+import org.opencv.imgcodecs.Imgcodecs;
 import org.opencv.imgproc.Imgproc;
 
 import java.io.IOException;
@@ -40,6 +43,8 @@ public class MainActivity extends AppCompatActivity {
     private static final int PICK_IMAGE_REQUEST_CODE = 1;
     private static final int CAPTURE_IMAGE_REQUEST_CODE = 2;
     private static final int CAMERA_PERMISSION_REQUEST_CODE = 3;
+    private static final int MAX_DECODE_SIDE = 4096;
+    private static final long MAX_DECODE_BYTES = 64L * 1024 * 1024;
 
     static {
         if (!OpenCVLoader.initDebug()) {
@@ -54,6 +59,11 @@ public class MainActivity extends AppCompatActivity {
 
     double alpha, beta;
     Mat source;
+    /**
+     * 缓存中的默认图片，只读
+     */
+    Mat defaultSource;
+    EditSession editSession;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -74,35 +84,54 @@ public class MainActivity extends AppCompatActivity {
     private void initData() {
         ivSource.setImageBitmap(BitmapFactory.decodeResource(getResources(), DEFAULT_IMAGE_RES_ID));
         try {
-            source = Utils.loadResource(this, DEFAULT_IMAGE_RES_ID);
+            defaultSource = App.getApp().getImageLoader()
+                    .acquire(this, DEFAULT_IMAGE_RES_ID, Imgcodecs.IMREAD_UNCHANGED);
+            source = defaultSource;
         } catch (IOException e) {
             e.printStackTrace();
         }
 
-        sbContrast.setOnSeekBarChangeListener(new SimpleSeekBarChangeListener() {
+        startEditSession();
+
+        SimpleSeekBarChangeListener editListener = new SimpleSeekBarChangeListener() {
             @Override
-            public void onStopTrackingTouch(SeekBar seekBar) {
-                alpha = seekBar.getProgress() * 0.01;
-                try {
-                    Mat src = OpenCVHelper.contrastAndBrightness(source, alpha, beta, true);
-                    display(OpenCVHelper.sharpen(src));
-                } catch (Throwable throwable) {
-                    throwable.printStackTrace();
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                if (fromUser && editSession != null) {
+                    alpha = sbContrast.getProgress() * 0.01;
+                    beta = sbBrightness.getProgress();
+                    editSession.update(alpha, beta);
                 }
             }
-        });
 
-        sbBrightness.setOnSeekBarChangeListener(new SimpleSeekBarChangeListener() {
             @Override
             public void onStopTrackingTouch(SeekBar seekBar) {
-                beta = seekBar.getProgress();
-                try {
-                    Mat src = OpenCVHelper.contrastAndBrightness(source, alpha, beta, true);
-                    display(OpenCVHelper.sharpen(src));
-                } catch (Throwable throwable) {
-                    throwable.printStackTrace();
+                if (editSession != null) {
+                    editSession.commit();
                 }
             }
+        };
+        sbContrast.setOnSeekBarChangeListener(editListener);
+        sbBrightness.setOnSeekBarChangeListener(editListener);
+    }
+
+    /**
+     * 拖动时在缩略图上预览，停止拖动后再处理原图
+     */
+    private void startEditSession() {
+        if (editSession != null) {
+            editSession.release();
+            editSession = null;
+        }
+        if (source == null) {
+            return;
+        }
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        int maxProxySide = Math.max(metrics.widthPixels, metrics.heightPixels);
+        editSession = new EditSession(source, maxProxySide, new EditSession.Listener() {
+            @Override
+            public void onRendered(Bitmap bitmap, boolean full) {
+                ivPreview.setImageBitmap(bitmap);
+            }
         });
     }
 
@@ -110,16 +139,19 @@ public class MainActivity extends AppCompatActivity {
     public void onClick(View view) {
         switch (view.getId()) {
             case R.id.bt_sharpen:
-                Mat sharpen = OpenCVHelper.sharpen(source);
-                display(sharpen);
+                try (Mat sharpen = OpenCVHelper.sharpen(source)) {
+                    display(sharpen);
+                }
                 break;
             case R.id.bt_gray:
-                Mat gray = OpenCVHelper.gray(source);
-                display(gray);
+                try (Mat gray = OpenCVHelper.gray(source)) {
+                    display(gray);
+                }
                 break;
             case R.id.bt_blur:
-                Mat blur = OpenCVHelper.blur(source, 51, 1);
-                display(blur);
+                try (Mat blur = OpenCVHelper.blur(source, 51, 1)) {
+                    display(blur);
+                }
                 break;
             case R.id.bt_system_camera:
                 openSystemCamera();
@@ -178,6 +210,28 @@ public class MainActivity extends AppCompatActivity {
         ivPreview.setImageBitmap(dstBitmap);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        final Mat cached = defaultSource;
+        defaultSource = null;
+        Runnable releaseSource = new Runnable() {
+            @Override
+            public void run() {
+                if (cached != null) {
+                    App.getApp().getImageLoader().release(cached);
+                }
+            }
+        };
+        if (editSession != null) {
+            // 渲染线程可能还在读source，等它结束后再归还缓存
+            editSession.release(releaseSource);
+            editSession = null;
+        } else {
+            releaseSource.run();
+        }
+    }
+
     @Override
     protected void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
@@ -195,13 +249,20 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * 缩略图按屏幕尺寸采样解码，编辑用的原图直接解码成Mat并限制尺寸和内存
+     */
+    private void loadImage(Uri uri) throws Throwable {
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        int screenSide = Math.max(metrics.widthPixels, metrics.heightPixels);
+        ivSource.setImageBitmap(ContentResolverHelper.readBitmap(uri, screenSide, MAX_DECODE_BYTES));
+        source = ContentResolverHelper.readMat(uri, MAX_DECODE_SIDE, MAX_DECODE_BYTES);
+    }
+
     private void handleCaptureImage() {
         try {
-            Bitmap bitmap = ContentResolverHelper.readBitmap(captureImageUri);
-            ivSource.setImageBitmap(bitmap);
-            Mat dst = new Mat();
-            Utils.bitmapToMat(bitmap, dst);
-            source = dst;
+            loadImage(captureImageUri);
+            startEditSession();
         } catch (Throwable throwable) {
             Toast.makeText(this, "handleCaptureImage " + throwable.getMessage(), Toast.LENGTH_SHORT).show();
         }
@@ -209,11 +270,8 @@ public class MainActivity extends AppCompatActivity {
 
     private void handlePickImage(Intent data) {
         try {
-            Bitmap bitmap = ContentResolverHelper.readBitmap(data.getData());
-            ivSource.setImageBitmap(bitmap);
-            Mat dst = new Mat();
-            Utils.bitmapToMat(bitmap, dst);
-            source = dst;
+            loadImage(data.getData());
+            startEditSession();
         } catch (Throwable throwable) {
             Toast.makeText(this, "handlePickImage " + throwable.getMessage(), Toast.LENGTH_SHORT).show();
         }
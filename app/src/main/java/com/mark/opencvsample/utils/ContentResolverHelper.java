@@ -9,8 +9,32 @@ import android.provider.MediaStore;
 
 import com.mark.opencvsample.App;
 
+import org.opencv.android.Utils;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
 public class ContentResolverHelper {
 
+    /**
+     * 解码后的BGR图像每像素字节数
+     */
+    private static final int MAT_BYTES_PER_PIXEL = 3;
+    /**
+     * ARGB_8888每像素字节数
+     */
+    private static final int BITMAP_BYTES_PER_PIXEL = 4;
+    /**
+     * 只有jpeg解码器支持在解码时缩小
+     */
+    private static final String JPEG_MIME_TYPE = "image/jpeg";
+
     public static Uri buildImageUri(String name) throws Throwable {
         ContentValues values = new ContentValues();
         values.put(MediaStore.Images.ImageColumns.DISPLAY_NAME, name);
@@ -20,9 +44,155 @@ public class ContentResolverHelper {
     }
 
     public static Bitmap readBitmap(Uri imageUri) throws Throwable {
+        return decodeBitmap(imageUri, new BitmapFactory.Options());
+    }
+
+    /**
+     * 按目标尺寸采样解码
+     *
+     * @param maxSide      解码结果长边不超过maxSide
+     * @param memoryBudget 解码结果占用内存上限，字节
+     */
+    public static Bitmap readBitmap(Uri imageUri, int maxSide, long memoryBudget) throws Throwable {
+        BitmapFactory.Options bounds = readBounds(imageUri);
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = calculateSampleSize(bounds.outWidth, bounds.outHeight,
+                maxSide, memoryBudget, BITMAP_BYTES_PER_PIXEL);
+        return decodeBitmap(imageUri, options);
+    }
+
+    /**
+     * 直接解码成BGR的Mat，不经过Bitmap
+     * jpeg采样倍数不超过8时使用Imgcodecs.IMREAD_REDUCED_COLOR_*，在解码器内部缩小；
+     * 其它格式的IMREAD_REDUCED_*会先按原尺寸解码再缩小，超出内存上限，需要采样时改用BitmapFactory采样解码
+     *
+     * @param maxSide      解码结果长边不超过maxSide
+     * @param memoryBudget 解码结果占用内存上限，字节
+     */
+    public static Mat readMat(Uri imageUri, int maxSide, long memoryBudget) throws Throwable {
+        BitmapFactory.Options bounds = readBounds(imageUri);
+        int sampleSize = calculateSampleSize(bounds.outWidth, bounds.outHeight,
+                maxSide, memoryBudget, MAT_BYTES_PER_PIXEL);
+        if (sampleSize > 1 && !JPEG_MIME_TYPE.equals(bounds.outMimeType)) {
+            return decodeSampledMat(imageUri, sampleSize);
+        }
+        int flags;
+        switch (sampleSize) {
+            case 1:
+                flags = Imgcodecs.IMREAD_COLOR;
+                break;
+            case 2:
+                flags = Imgcodecs.IMREAD_REDUCED_COLOR_2;
+                break;
+            case 4:
+                flags = Imgcodecs.IMREAD_REDUCED_COLOR_4;
+                break;
+            case 8:
+                flags = Imgcodecs.IMREAD_REDUCED_COLOR_8;
+                break;
+            default:
+                return decodeSampledMat(imageUri, sampleSize);
+        }
+        // imdecode默认按EXIF旋转，BitmapFactory不旋转，忽略EXIF使各条路径和缩略图方向一致
+        Mat dst = decodeMat(imageUri, flags | Imgcodecs.IMREAD_IGNORE_ORIENTATION);
+        if (dst.empty()) {
+            // opencv不支持的格式交给BitmapFactory
+            dst.release();
+            return decodeSampledMat(imageUri, sampleSize);
+        }
+        return dst;
+    }
+
+    /**
+     * 只读取图片尺寸
+     */
+    public static BitmapFactory.Options readBounds(Uri imageUri) throws Throwable {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        decodeBitmap(imageUri, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("无法读取图片尺寸 " + imageUri);
+        }
+        return options;
+    }
+
+    /**
+     * 计算2的幂的采样倍数，使结果长边不超过maxSide并且内存不超过memoryBudget
+     */
+    public static int calculateSampleSize(int width, int height, int maxSide, long memoryBudget, int bytesPerPixel) {
+        int sampleSize = 1;
+        while (Math.max(width, height) / sampleSize > maxSide
+                || (long) (width / sampleSize) * (height / sampleSize) * bytesPerPixel > memoryBudget) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static Bitmap decodeBitmap(Uri imageUri, BitmapFactory.Options options) throws Throwable {
         ParcelFileDescriptor parcelFileDescriptor =
                 App.getApp().getContentResolver().openFileDescriptor(imageUri, "r");
-        return BitmapFactory.decodeFileDescriptor(parcelFileDescriptor.getFileDescriptor());
+        if (parcelFileDescriptor == null) {
+            throw new IOException("无法打开 " + imageUri);
+        }
+        try {
+            return BitmapFactory.decodeFileDescriptor(parcelFileDescriptor.getFileDescriptor(), null, options);
+        } finally {
+            parcelFileDescriptor.close();
+        }
+    }
+
+    /**
+     * 文件内容读入direct buffer后直接作为Mat交给imdecode，不经过java数组
+     */
+    private static Mat decodeMat(Uri imageUri, int flags) throws Throwable {
+        ParcelFileDescriptor parcelFileDescriptor =
+                App.getApp().getContentResolver().openFileDescriptor(imageUri, "r");
+        if (parcelFileDescriptor == null) {
+            throw new IOException("无法打开 " + imageUri);
+        }
+        FileInputStream input = new FileInputStream(parcelFileDescriptor.getFileDescriptor());
+        try {
+            FileChannel channel = input.getChannel();
+            long size = parcelFileDescriptor.getStatSize();
+            if (size <= 0 || size > Integer.MAX_VALUE) {
+                try {
+                    size = channel.size();
+                } catch (IOException e) {
+                    size = -1;
+                }
+            }
+            if (size <= 0 || size > Integer.MAX_VALUE) {
+                // 长度未知，返回空Mat由调用方改用BitmapFactory
+                return new Mat();
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 读满为止
+            }
+            Mat encoded = new Mat(1, buffer.position(), CvType.CV_8UC1, buffer);
+            try {
+                return Imgcodecs.imdecode(encoded, flags);
+            } finally {
+                encoded.release();
+            }
+        } finally {
+            input.close();
+            parcelFileDescriptor.close();
+        }
+    }
+
+    private static Mat decodeSampledMat(Uri imageUri, int sampleSize) throws Throwable {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        Bitmap bitmap = decodeBitmap(imageUri, options);
+        if (bitmap == null) {
+            throw new IOException("无法解码 " + imageUri);
+        }
+        Mat dst = new Mat();
+        Utils.bitmapToMat(bitmap, dst);
+        bitmap.recycle();
+        Imgproc.cvtColor(dst, dst, Imgproc.COLOR_RGBA2BGR);
+        return dst;
     }
 
 }
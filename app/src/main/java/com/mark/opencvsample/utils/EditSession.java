@@ -0,0 +1,199 @@
+package com.mark.opencvsample.utils;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import org.opencv.android.Utils;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 图片编辑会话
+ * 拖动滑块时只在屏幕大小的缩略图上预览，渲染在后台线程执行，参数再次变化时丢弃过期的渲染
+ * 停止编辑或保存时才用同一组参数处理原图
+ */
+public class EditSession {
+
+    private static final String TAG = "EditSession";
+
+    public interface Listener {
+        /**
+         * 在主线程回调
+         *
+         * @param full 是否是原图的渲染结果
+         */
+        void onRendered(Bitmap bitmap, boolean full);
+    }
+
+    private final Mat source;
+    private final Mat proxy = new Mat();
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger generation = new AtomicInteger();
+    // 只在渲染线程使用，参数变化时只更新对比度亮度，卷积核和缓冲区在多次渲染间复用
+    private final FilterChain chain = new FilterChain()
+            .contrast(1.0, 0)
+            .sharpen();
+    private final Mat rendered = new Mat();
+    private Future<?> pending;
+    private boolean released;
+
+    private double alpha = 1.0;
+    private double beta = 0;
+
+    /**
+     * @param maxProxySide 缩略图长边的最大值，一般取屏幕长边
+     */
+    public EditSession(Mat source, int maxProxySide, Listener listener) {
+        this.source = source;
+        this.listener = listener;
+        executor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+        buildProxy(maxProxySide);
+    }
+
+    private void buildProxy(int maxProxySide) {
+        int side = Math.max(source.cols(), source.rows());
+        if (side <= maxProxySide) {
+            source.copyTo(proxy);
+            return;
+        }
+        // 先用pyrDown每次缩小一半，最后一步resize到目标尺寸
+        Mat current = source;
+        while (side / 2 >= maxProxySide) {
+            Mat half = new Mat();
+            Imgproc.pyrDown(current, half);
+            if (current != source) {
+                current.release();
+            }
+            current = half;
+            side = Math.max(current.cols(), current.rows());
+        }
+        double scale = (double) maxProxySide / side;
+        Imgproc.resize(current, proxy, new Size(current.cols() * scale, current.rows() * scale),
+                0, 0, Imgproc.INTER_AREA);
+        if (current != source) {
+            current.release();
+        }
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public double getBeta() {
+        return beta;
+    }
+
+    /**
+     * 设置对比度、亮度并刷新缩略图
+     */
+    public synchronized void update(double alpha, double beta) {
+        this.alpha = alpha;
+        this.beta = beta;
+        submit(proxy, false);
+    }
+
+    /**
+     * 用当前参数处理原图，停止编辑或保存时调用
+     */
+    public void commit() {
+        submit(source, true);
+    }
+
+    /**
+     * 丢弃未完成的渲染并释放缩略图，source由调用方释放
+     */
+    public void release() {
+        release(null);
+    }
+
+    /**
+     * 同{@link #release()}，正在执行的渲染结束后在渲染线程里回调onReleased，此时可以释放source
+     * 只有第一次调用有效
+     */
+    public synchronized void release(final Runnable onReleased) {
+        if (released) {
+            return;
+        }
+        released = true;
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        // 排在正在执行的渲染之后释放
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                proxy.release();
+                chain.release();
+                rendered.release();
+                if (onReleased != null) {
+                    onReleased.run();
+                }
+            }
+        });
+        executor.shutdown();
+    }
+
+    private synchronized void submit(final Mat input, final boolean full) {
+        // release之后滑块等UI回调仍可能到达，直接忽略
+        if (released) {
+            return;
+        }
+        final int id = generation.incrementAndGet();
+        final double alpha = this.alpha;
+        final double beta = this.beta;
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                if (id != generation.get()) {
+                    return;
+                }
+                chain.setContrast(alpha, beta);
+                try {
+                    chain.run(input, rendered);
+                    if (id != generation.get()) {
+                        return;
+                    }
+                    final Bitmap bitmap = toBitmap(rendered);
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            // 主线程里再检查一次，避免旧结果覆盖新结果
+                            if (id == generation.get()) {
+                                listener.onRendered(bitmap, full);
+                            }
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "render failed", e);
+                }
+            }
+        });
+    }
+
+    private static Bitmap toBitmap(Mat src) {
+        if (src.channels() != 1) {
+            Imgproc.cvtColor(src, src, Imgproc.COLOR_BGRA2RGBA);
+        }
+        Bitmap bitmap = Bitmap.createBitmap(src.cols(), src.rows(), Bitmap.Config.ARGB_8888);
+        Utils.matToBitmap(src, bitmap);
+        return bitmap;
+    }
+
+}
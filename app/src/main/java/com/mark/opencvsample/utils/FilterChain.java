@@ -0,0 +1,385 @@
+package com.mark.opencvsample.utils;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.Point;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 滤镜链
+ * 按顺序添加操作，run时在两块预分配的缓冲区之间交替处理，卷积核在构建时生成并缓存
+ * 相邻的线性操作(对比度亮度、锐化、自定义卷积)会合并成一次filter2D
+ * 对相同尺寸的图像重复执行不会再分配内存，对比度亮度可以用{@link #setContrast}修改而不用重新构建
+ * <p>
+ * 合并后中间结果不再截断到0~255，与逐个执行相比在饱和区域会略有差别
+ * 四通道图像的线性操作只作用于颜色通道，alpha通道保持不变，与{@link ToneCurve}一致
+ * 非线程安全
+ */
+public class FilterChain {
+
+    private final List<Op> ops = new ArrayList<>();
+    private final Mat ping = new Mat();
+    private final Mat pong = new Mat();
+    private List<Op> compiled;
+    private LinearOp contrastOp;
+    private boolean dirty;
+
+    /**
+     * 对比度和亮度 dst = src * alpha + beta
+     */
+    public FilterChain contrast(double alpha, double beta) {
+        float[] kernel = {(float) alpha};
+        contrastOp = new LinearOp(kernel, 1, beta);
+        return add(contrastOp);
+    }
+
+    /**
+     * 修改最后添加的对比度亮度，合并后的卷积核在下一次run时原地更新
+     */
+    public FilterChain setContrast(double alpha, double beta) {
+        if (contrastOp == null) {
+            throw new IllegalStateException("滤镜链中没有对比度操作");
+        }
+        contrastOp.kernel[0] = (float) alpha;
+        contrastOp.delta = beta;
+        dirty = true;
+        return this;
+    }
+
+    /**
+     * 锐化
+     */
+    public FilterChain sharpen() {
+        float[] kernel = {
+                0, -1, 0,
+                -1, 5, -1,
+                0, -1, 0};
+        return add(new LinearOp(kernel, 3, 0));
+    }
+
+    /**
+     * 自定义卷积
+     *
+     * @param kernel 按行排列，size * size 个元素
+     * @param size   为正数且是奇数
+     */
+    public FilterChain convolve(float[] kernel, int size, double delta) {
+        if (size % 2 == 0 || kernel.length != size * size) {
+            throw new IllegalArgumentException("卷积核尺寸不正确");
+        }
+        return add(new LinearOp(kernel.clone(), size, delta));
+    }
+
+    /**
+     * 均值模糊
+     */
+    public FilterChain blur(double xRadius, double yRadius) {
+        final Size size = new Size(xRadius, yRadius);
+        final Point anchor = new Point(-1, -1);
+        return add(new Op() {
+            @Override
+            void run(Mat src, Mat dst) {
+                Imgproc.blur(src, dst, size, anchor);
+            }
+        });
+    }
+
+    /**
+     * 高斯模糊
+     */
+    public FilterChain gaussianBlur(final Size size, final double sigmaX, final double sigmaY) {
+        return add(new Op() {
+            @Override
+            void run(Mat src, Mat dst) {
+                Imgproc.GaussianBlur(src, dst, size, sigmaX, sigmaY);
+            }
+        });
+    }
+
+    /**
+     * 中值模糊
+     */
+    public FilterChain medianBlur(final int kSize) {
+        return add(new Op() {
+            @Override
+            void run(Mat src, Mat dst) {
+                Imgproc.medianBlur(src, dst, kSize);
+            }
+        });
+    }
+
+    /**
+     * 双边模糊
+     */
+    public FilterChain bilateralFilter(final int d, final double sigmaColor, final double sigmaSpace) {
+        return add(new Op() {
+            @Override
+            void run(Mat src, Mat dst) {
+                Imgproc.bilateralFilter(src, dst, d, sigmaColor, sigmaSpace);
+            }
+        });
+    }
+
+    /**
+     * 图像重叠 other需要和输入的尺寸、类型相同
+     */
+    public FilterChain overlay(final Mat other, final double alpha) {
+        return add(new Op() {
+            @Override
+            void run(Mat src, Mat dst) {
+                Core.addWeighted(src, 1 - alpha, other, alpha, 0.0, dst);
+            }
+        });
+    }
+
+    /**
+     * 灰度化
+     */
+    public FilterChain gray() {
+        return add(new Op() {
+            @Override
+            void run(Mat src, Mat dst) {
+                Imgproc.cvtColor(src, dst, Imgproc.COLOR_BGR2GRAY);
+            }
+        });
+    }
+
+    /**
+     * 色调曲线
+     */
+    public FilterChain tone(final ToneCurve curve) {
+        return add(new Op() {
+            @Override
+            void run(Mat src, Mat dst) {
+                curve.apply(src, dst);
+            }
+        });
+    }
+
+    /**
+     * 执行滤镜链
+     *
+     * @param dst 不能和src相同，尺寸类型不变时会被复用
+     */
+    public void run(Mat src, Mat dst) {
+        List<Op> steps = compile();
+        if (dirty) {
+            for (Op op : steps) {
+                op.refresh();
+            }
+            dirty = false;
+        }
+        if (steps.isEmpty()) {
+            src.copyTo(dst);
+            return;
+        }
+        Mat in = src;
+        for (int i = 0; i < steps.size(); i++) {
+            Mat out = i == steps.size() - 1 ? dst : (i % 2 == 0 ? ping : pong);
+            steps.get(i).run(in, out);
+            in = out;
+        }
+    }
+
+    public Mat run(Mat src) {
+        Mat dst = new Mat();
+        run(src, dst);
+        return dst;
+    }
+
+    /**
+     * 释放缓冲区和缓存的卷积核
+     */
+    public void release() {
+        ping.release();
+        pong.release();
+        if (compiled != null) {
+            for (Op op : compiled) {
+                op.release();
+            }
+            compiled = null;
+        }
+    }
+
+    private FilterChain add(Op op) {
+        if (compiled != null) {
+            throw new IllegalStateException("滤镜链已经执行过，不能再添加操作");
+        }
+        ops.add(op);
+        return this;
+    }
+
+    private List<Op> compile() {
+        if (compiled == null) {
+            compiled = new ArrayList<>();
+            List<LinearOp> pending = new ArrayList<>();
+            for (Op op : ops) {
+                if (op instanceof LinearOp) {
+                    pending.add((LinearOp) op);
+                    continue;
+                }
+                if (!pending.isEmpty()) {
+                    compiled.add(LinearOp.fuse(pending));
+                    pending.clear();
+                }
+                compiled.add(op);
+            }
+            if (!pending.isEmpty()) {
+                compiled.add(LinearOp.fuse(pending));
+            }
+            dirty = false;
+        }
+        return compiled;
+    }
+
+    private abstract static class Op {
+        abstract void run(Mat src, Mat dst);
+
+        /**
+         * 参数变化后更新缓存
+         */
+        void refresh() {
+        }
+
+        void release() {
+        }
+    }
+
+    /**
+     * dst = kernel ⊗ src + delta
+     */
+    private static class LinearOp extends Op {
+        private static final Point ANCHOR = new Point(-1, -1);
+
+        private final float[] kernel;
+        private final int size;
+        private double delta;
+        private Mat kernelMat;
+        // 合并前的操作，参数变化时重新合并，只有一个操作时为null
+        private List<LinearOp> parts;
+        // 把src的alpha通道拷回dst
+        private MatOfInt alphaFromTo;
+        private final List<Mat> srcList = new ArrayList<>(1);
+        private final List<Mat> dstList = new ArrayList<>(1);
+
+        LinearOp(float[] kernel, int size, double delta) {
+            this.kernel = kernel;
+            this.size = size;
+            this.delta = delta;
+        }
+
+        /**
+         * 把相邻的线性操作合并成一个
+         */
+        static LinearOp fuse(List<LinearOp> ops) {
+            if (ops.size() == 1) {
+                return ops.get(0);
+            }
+            LinearOp fused = combine(ops);
+            fused.parts = new ArrayList<>(ops);
+            return fused;
+        }
+
+        private static LinearOp combine(List<LinearOp> ops) {
+            LinearOp combined = ops.get(0);
+            for (int i = 1; i < ops.size(); i++) {
+                combined = combined.then(ops.get(i));
+            }
+            return combined;
+        }
+
+        /**
+         * 重新合并，卷积核尺寸不变，原地更新缓存的kernelMat
+         */
+        @Override
+        void refresh() {
+            if (parts == null) {
+                if (kernelMat != null) {
+                    kernelMat.put(0, 0, kernel);
+                }
+                return;
+            }
+            LinearOp combined = combine(parts);
+            System.arraycopy(combined.kernel, 0, kernel, 0, kernel.length);
+            delta = combined.delta;
+            if (kernelMat != null) {
+                kernelMat.put(0, 0, kernel);
+            }
+        }
+
+        /**
+         * 合并成一个操作：先执行当前的再执行next
+         */
+        LinearOp then(LinearOp next) {
+            int combinedSize = size + next.size - 1;
+            float[] combined = new float[combinedSize * combinedSize];
+            for (int y = 0; y < next.size; y++) {
+                for (int x = 0; x < next.size; x++) {
+                    float weight = next.kernel[y * next.size + x];
+                    if (weight == 0) {
+                        continue;
+                    }
+                    for (int v = 0; v < size; v++) {
+                        for (int u = 0; u < size; u++) {
+                            combined[(y + v) * combinedSize + x + u] += weight * kernel[v * size + u];
+                        }
+                    }
+                }
+            }
+            double sum = 0;
+            for (float weight : next.kernel) {
+                sum += weight;
+            }
+            return new LinearOp(combined, combinedSize, delta * sum + next.delta);
+        }
+
+        @Override
+        void run(Mat src, Mat dst) {
+            if (size == 1) {
+                src.convertTo(dst, -1, kernel[0], delta);
+            } else {
+                if (kernelMat == null) {
+                    kernelMat = new Mat(size, size, CvType.CV_32FC1);
+                    kernelMat.put(0, 0, kernel);
+                }
+                Imgproc.filter2D(src, dst, -1, kernelMat, ANCHOR, delta);
+            }
+            if (src.channels() == 4) {
+                restoreAlpha(src, dst);
+            }
+        }
+
+        private void restoreAlpha(Mat src, Mat dst) {
+            if (alphaFromTo == null) {
+                alphaFromTo = new MatOfInt(3, 3);
+            }
+            srcList.add(src);
+            dstList.add(dst);
+            try {
+                Core.mixChannels(srcList, dstList, alphaFromTo);
+            } finally {
+                srcList.clear();
+                dstList.clear();
+            }
+        }
+
+        @Override
+        void release() {
+            if (kernelMat != null) {
+                kernelMat.release();
+                kernelMat = null;
+            }
+            if (alphaFromTo != null) {
+                alphaFromTo.release();
+                alphaFromTo = null;
+            }
+        }
+    }
+
+}
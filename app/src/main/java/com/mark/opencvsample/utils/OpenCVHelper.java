@@ -7,6 +7,8 @@ import android.graphics.Color;
 import org.opencv.core.Core;
 import org.opencv.core.CvType;
 import org.opencv.core.Mat;
+import org.opencv.core.MatBuffer;
+import org.opencv.core.MatPool;
 import org.opencv.core.Point;
 import org.opencv.core.Size;
 import org.opencv.imgcodecs.Imgcodecs;
@@ -14,6 +16,34 @@ import org.opencv.imgproc.Imgproc;
 
 public class OpenCVHelper {
 
+    private static Mat sharpenKernel;
+    private static volatile MatPool matPool;
+
+    /**
+     * 设置后各方法的结果从池中分配，用完后调用 {@link #recycle(Mat)} 归还
+     * 处理相同尺寸的图像时不再分配native内存
+     *
+     * @param pool 为null时不使用池
+     */
+    public static void setMatPool(MatPool pool) {
+        matPool = pool;
+    }
+
+    /**
+     * 归还各方法返回的Mat，没有设置池时直接释放
+     */
+    public static void recycle(Mat mat) {
+        MatPool pool = matPool;
+        if (pool == null || !pool.release(mat)) {
+            mat.close();
+        }
+    }
+
+    private static Mat obtain(int rows, int cols, int type) {
+        MatPool pool = matPool;
+        return pool != null ? pool.acquire(rows, cols, type) : new Mat(rows, cols, type);
+    }
+
     /**
      * 均值模糊
      *
@@ -23,7 +53,7 @@ public class OpenCVHelper {
      * @return
      */
     public static Mat blur(Mat src, double xRadius, double yRadius) {
-        Mat dst = new Mat(src.size(), src.type());
+        Mat dst = obtain(src.rows(), src.cols(), src.type());
         Imgproc.blur(src, dst, new Size(xRadius, yRadius), new Point(-1, -1));
         return dst;
     }
@@ -38,7 +68,7 @@ public class OpenCVHelper {
      * @return
      */
     public static Mat gaussianBlur(Mat src, Size size, double sigmaX, double sigmaY) {
-        Mat dst = new Mat(src.size(), src.type());
+        Mat dst = obtain(src.rows(), src.cols(), src.type());
         Imgproc.GaussianBlur(src, dst, size, sigmaX, sigmaY);
         return dst;
     }
@@ -51,11 +81,29 @@ public class OpenCVHelper {
      * @return
      */
     public static Mat medianBlur(Mat src, int kSize) {
-        Mat dst = new Mat(src.size(), src.type());
+        Mat dst = obtain(src.rows(), src.cols(), src.type());
         Imgproc.medianBlur(src, dst, kSize);
         return dst;
     }
 
+    /**
+     * 中值模糊 分块并行
+     *
+     * @param src
+     * @param kSize 大于1且为奇数
+     * @return
+     */
+    public static Mat medianBlur(Mat src, final int kSize, TiledExecutor executor) {
+        Mat dst = obtain(src.rows(), src.cols(), src.type());
+        executor.run(src, dst, kSize / 2, new TiledExecutor.TileOp() {
+            @Override
+            public void run(Mat src, Mat dst) {
+                Imgproc.medianBlur(src, dst, kSize);
+            }
+        });
+        return dst;
+    }
+
     /**
      * 双边模糊(磨皮效果)
      *
@@ -66,11 +114,28 @@ public class OpenCVHelper {
      * @return
      */
     public static Mat bilateralFilter(Mat src, int d, double sigmaColor, double sigmaSpace) {
-        Mat dst = new Mat(src.size(), src.type());
+        Mat dst = obtain(src.rows(), src.cols(), src.type());
         Imgproc.bilateralFilter(src, dst, d, sigmaColor, sigmaSpace);
         return dst;
     }
 
+    /**
+     * 双边模糊 分块并行
+     */
+    public static Mat bilateralFilter(Mat src, final int d, final double sigmaColor, final double sigmaSpace,
+                                      TiledExecutor executor) {
+        // 与opencv相同，d不大于0时半径由sigmaSpace决定
+        int radius = d > 0 ? d / 2 : (int) Math.round(sigmaSpace * 1.5);
+        Mat dst = obtain(src.rows(), src.cols(), src.type());
+        executor.run(src, dst, radius, new TiledExecutor.TileOp() {
+            @Override
+            public void run(Mat src, Mat dst) {
+                Imgproc.bilateralFilter(src, dst, d, sigmaColor, sigmaSpace);
+            }
+        });
+        return dst;
+    }
+
 
     /**
      * 图像重叠
@@ -81,7 +146,7 @@ public class OpenCVHelper {
      * @return
      */
     public static Mat overlay(Mat src1, Mat src2, double alpha) {
-        Mat dst = new Mat(src1.size(), src1.type());
+        Mat dst = obtain(src1.rows(), src1.cols(), src1.type());
         Core.addWeighted(src1, 1 - alpha, src2, alpha, 0.0, dst);
         return dst;
     }
@@ -91,11 +156,8 @@ public class OpenCVHelper {
      * 锐化
      */
     public static Mat sharpen(Mat src) {
-        Mat dst = new Mat();
-        //自定义图像的卷积核
-        Mat sharpenKernel = new Mat(3, 3, CvType.CV_16SC1);
-        sharpenKernel.put(0, 0, 0, -1, 0, -1, 5, -1, 0, -1, 0);
-        Imgproc.filter2D(src, dst, src.depth(), sharpenKernel);
+        Mat dst = obtain(src.rows(), src.cols(), src.type());
+        Imgproc.filter2D(src, dst, src.depth(), sharpenKernel());
         return dst;
 
 //        Mat usm = new Mat();
@@ -105,20 +167,59 @@ public class OpenCVHelper {
     }
 
 
+    private static synchronized Mat sharpenKernel() {
+        if (sharpenKernel == null) {
+            //自定义图像的卷积核
+            sharpenKernel = new Mat(3, 3, CvType.CV_16SC1);
+            sharpenKernel.put(0, 0, 0, -1, 0, -1, 5, -1, 0, -1, 0);
+        }
+        return sharpenKernel;
+    }
+
+
     /**
      * 灰度化
      */
     public static Mat gray(Mat src) {
-        Mat dst = new Mat();
+        Mat dst = obtain(src.rows(), src.cols(), CvType.CV_8UC1);
         Imgproc.cvtColor(src, dst, Imgproc.COLOR_BGR2GRAY);
         return dst;
     }
 
 
+    /**
+     * 对比度和亮度 查找表实现
+     * alpha 大小决定对比度 大于0
+     * beta  决定亮度
+     */
     public static Mat contrastAndBrightness(Mat src, double alpha, double beta, boolean fast) throws Throwable {
-        Mat blank = Mat.zeros(src.size(), src.type());
-        Mat dst = new Mat(src.size(), src.type());
-        Core.addWeighted(src, alpha, blank, 1 - alpha, beta, dst);
+        Mat dst = obtain(src.rows(), src.cols(), src.type());
+        ToneCurve.linear(alpha, beta).apply(src, dst);
+        return dst;
+    }
+
+
+    /**
+     * gamma校正
+     *
+     * @param gamma 大于0，小于1变亮，大于1变暗
+     */
+    public static Mat gamma(Mat src, double gamma) {
+        Mat dst = obtain(src.rows(), src.cols(), src.type());
+        ToneCurve.gamma(gamma).apply(src, dst);
+        return dst;
+    }
+
+
+    /**
+     * 曲线
+     *
+     * @param xs 控制点输入值 0~255 递增
+     * @param ys 控制点输出值 0~255
+     */
+    public static Mat curves(Mat src, int[] xs, int[] ys) {
+        Mat dst = obtain(src.rows(), src.cols(), src.type());
+        ToneCurve.curve(xs, ys).apply(src, dst);
         return dst;
     }
 
@@ -128,32 +229,29 @@ public class OpenCVHelper {
      * alpha 大小决定对比度 大于0
      * beta  决定亮度
      * 使用opencv实现
+     * 只支持8位图像，使用 {@link ToneCurve} 更快
      */
     @Deprecated
     public static Mat contrastAndBrightness(Mat src, double alpha, double beta) throws Throwable {
-        Mat dst = Mat.zeros(src.size(), src.type());
         Imgproc.cvtColor(src, src, Imgproc.COLOR_BGR2RGB);
         int cols = src.cols();
         int rows = src.rows();
         int channels = src.channels();
+        // 在java中直接读写像素，不再逐像素调用JNI
+        MatBuffer in = MatBuffer.copyOf(src);
+        MatBuffer out = MatBuffer.allocate(rows, cols, src.type());
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                if (channels == 3) {
-                    double[] bgr = src.get(i, j);
-                    double b = bgr[0];
-                    double g = bgr[1];
-                    double r = bgr[2];
-                    double d_b = b * alpha + beta;
-                    double d_g = g * alpha + beta;
-                    double d_r = r * alpha + beta;
-                    dst.put(i, j, d_b, d_g, d_r);
-                } else if (channels == 1) {
-                    double[] gray = src.get(i, j);
-                    double d_gray = gray[0] * alpha + beta;
-                    dst.put(i, j, d_gray);
+                for (int c = 0; c < channels; c++) {
+                    long value = Math.round(in.getUByte(i, j, c) * alpha + beta);
+                    out.putByte(i, j, c, (int) Math.max(0, Math.min(255, value)));
                 }
             }
         }
+        in.mat().close();
+        // out的Mat不持有缓冲区，返回一份拷贝
+        Mat dst = out.mat().clone();
+        out.mat().close();
         return dst;
     }
 
@@ -162,6 +260,7 @@ public class OpenCVHelper {
      * 亮度
      * 使用安卓原生Bitmap实现
      * 数据精确度不够 导致某些像素变脏了 无法实现
+     * 使用 {@link ToneCurve}
      *
      * @param bitmap
      */
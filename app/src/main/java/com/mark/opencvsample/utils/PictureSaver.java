@@ -0,0 +1,180 @@
+package com.mark.opencvsample.utils;
+
+import android.util.Log;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 后台保存图片
+ * 编码和写文件在线程池中并行执行，等待中的预览帧达到上限时提交方会阻塞（背压）
+ * 拍照得到的jpeg在主线程回调，不能阻塞，使用单独的名额，名额用完时直接报告保存失败
+ */
+public class PictureSaver {
+
+    private static final String TAG = "PictureSaver";
+    private static final int JPEG_QUALITY = 95;
+    /**
+     * 同时排队或写入中的拍照图片上限，与预览帧的名额分开，连拍时也能拍照
+     */
+    private static final int MAX_PENDING_JPEGS = 2;
+
+    /**
+     * 保存完成的回调，在保存线程中调用
+     */
+    public interface Callback {
+        void onSaved(String fileName, boolean success);
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore pending;
+    private final Semaphore pendingJpegs = new Semaphore(MAX_PENDING_JPEGS);
+
+    /**
+     * @param maxPending 同时排队或执行中的任务上限
+     */
+    public PictureSaver(int maxPending) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+        pending = new Semaphore(maxPending);
+    }
+
+    /**
+     * 保存相机返回的jpeg数据，不会阻塞，可以在主线程调用
+     *
+     * @param callback 可以为null
+     * @return 排队的图片太多或已经release时返回false，callback以失败回调
+     */
+    public boolean saveJpeg(final byte[] jpeg, final String fileName, final Callback callback) {
+        if (!pendingJpegs.tryAcquire()) {
+            Log.w(TAG, "too many pictures pending, dropped " + fileName);
+            notifySaved(callback, fileName, false);
+            return false;
+        }
+        if (!submit(pendingJpegs, new Runnable() {
+            @Override
+            public void run() {
+                boolean success = false;
+                try {
+                    success = write(jpeg, fileName);
+                } finally {
+                    pendingJpegs.release();
+                    notifySaved(callback, fileName, success);
+                }
+            }
+        })) {
+            notifySaved(callback, fileName, false);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 编码并保存预览帧，排队的帧达到上限时阻塞，只在相机工作线程调用
+     *
+     * @param rgba 调用返回后可以被复用，这里会复制一份
+     */
+    public void saveFrame(Mat rgba, final String fileName, final Callback callback) {
+        acquire();
+        final Mat frame = rgba.clone();
+        if (!submit(pending, new Runnable() {
+            @Override
+            public void run() {
+                Mat bgr = new Mat();
+                MatOfByte jpeg = new MatOfByte();
+                MatOfInt params = new MatOfInt(Imgcodecs.IMWRITE_JPEG_QUALITY, JPEG_QUALITY);
+                boolean success = false;
+                try {
+                    Imgproc.cvtColor(frame, bgr, Imgproc.COLOR_RGBA2BGR);
+                    if (Imgcodecs.imencode(".jpg", bgr, jpeg, params)) {
+                        success = write(jpeg.toArray(), fileName);
+                    } else {
+                        Log.e(TAG, "imencode failed: " + fileName);
+                    }
+                } finally {
+                    frame.release();
+                    bgr.release();
+                    jpeg.release();
+                    params.release();
+                    pending.release();
+                    notifySaved(callback, fileName, success);
+                }
+            }
+        })) {
+            frame.release();
+            notifySaved(callback, fileName, false);
+        }
+    }
+
+    /**
+     * 不再接受新的图片，已提交的继续保存完
+     */
+    public void release() {
+        executor.shutdown();
+    }
+
+    /**
+     * release()之后提交的任务被忽略，返回false
+     */
+    private boolean submit(Semaphore permits, Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "PictureSaver已释放，忽略保存请求");
+            permits.release();
+            return false;
+        }
+    }
+
+    private static void notifySaved(Callback callback, String fileName, boolean success) {
+        if (callback != null) {
+            callback.onSaved(fileName, success);
+        }
+    }
+
+    private void acquire() {
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            // 不能丢弃图片，保持中断状态继续提交
+            Thread.currentThread().interrupt();
+            pending.acquireUninterruptibly();
+        }
+    }
+
+    private static boolean write(byte[] data, String fileName) {
+        FileOutputStream fos = null;
+        try {
+            fos = new FileOutputStream(fileName);
+            fos.write(data);
+            Log.i(TAG, "saved " + fileName);
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "write " + fileName, e);
+            return false;
+        } finally {
+            if (fos != null) {
+                try {
+                    fos.close();
+                } catch (IOException e) {
+                    Log.e(TAG, "close " + fileName, e);
+                }
+            }
+        }
+    }
+
+}
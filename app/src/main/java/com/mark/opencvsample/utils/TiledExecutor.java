@@ -0,0 +1,170 @@
+package com.mark.opencvsample.utils;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 分块并行处理大图
+ * 把图像切成带重叠边(halo)的小块，每块用submat取出后在线程池中处理，只把中心区域拷回结果，拼接处没有接缝
+ * halo至少为卷积核半径；同时处理的块数受内存预算限制
+ * 某一块失败或调用线程被中断时，未开始的块直接跳过，等正在执行的块结束后才返回，不会在返回后再写dst
+ */
+public class TiledExecutor {
+
+    private static final int DEFAULT_TILE_SIZE = 512;
+
+    /**
+     * 对一块图像执行的操作，src和dst尺寸类型相同
+     */
+    public interface TileOp {
+        void run(Mat src, Mat dst);
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final long memoryBudget;
+    private final int tileSize;
+
+    /**
+     * @param memoryBudget 同时处理的块占用的临时内存上限，字节
+     */
+    public TiledExecutor(long memoryBudget) {
+        this(Runtime.getRuntime().availableProcessors(), memoryBudget, DEFAULT_TILE_SIZE);
+    }
+
+    public TiledExecutor(int threads, long memoryBudget, int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize必须为正数");
+        }
+        this.memoryBudget = memoryBudget;
+        this.tileSize = tileSize;
+        executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 分块执行op，阻塞到全部完成
+     *
+     * @param dst  不能和src相同
+     * @param halo 每块向四周扩展的像素数，不小于卷积核半径
+     */
+    public void run(Mat src, Mat dst, int halo, final TileOp op) {
+        int rows = src.rows();
+        int cols = src.cols();
+        dst.create(rows, cols, src.type());
+
+        // 每块的输入是src的视图，临时内存是输出块和算子内部的拷贝
+        long paddedSide = tileSize + 2L * halo;
+        long tileBytes = paddedSide * paddedSide * src.elemSize() * 2;
+        int permits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, memoryBudget / tileBytes));
+        final Semaphore inFlight = new Semaphore(permits);
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int y = 0; y < rows; y += tileSize) {
+                for (int x = 0; x < cols; x += tileSize) {
+                    final Rect core = new Rect(x, y, Math.min(tileSize, cols - x), Math.min(tileSize, rows - y));
+                    int left = Math.max(0, x - halo);
+                    int top = Math.max(0, y - halo);
+                    int right = Math.min(cols, core.x + core.width + halo);
+                    int bottom = Math.min(rows, core.y + core.height + halo);
+                    final Rect padded = new Rect(left, top, right - left, bottom - top);
+
+                    inFlight.acquire();
+                    final Mat input = src.submat(padded);
+                    final Mat output = dst.submat(core);
+                    Runnable task = new Runnable() {
+                        @Override
+                        public void run() {
+                            Mat tile = new Mat();
+                            boolean done = false;
+                            try {
+                                if (cancelled.get()) {
+                                    done = true;
+                                    return;
+                                }
+                                op.run(input, tile);
+                                Mat center = tile.submat(new Rect(core.x - padded.x, core.y - padded.y,
+                                        core.width, core.height));
+                                center.copyTo(output);
+                                center.release();
+                                done = true;
+                            } finally {
+                                if (!done) {
+                                    cancelled.set(true);
+                                }
+                                tile.release();
+                                input.release();
+                                output.release();
+                                inFlight.release();
+                            }
+                        }
+                    };
+                    try {
+                        futures.add(executor.submit(task));
+                    } catch (RejectedExecutionException e) {
+                        // shutdown之后提交，这一块的资源由这里释放，已提交的块结束后再抛出
+                        input.release();
+                        output.release();
+                        inFlight.release();
+                        cancelled.set(true);
+                        awaitAll(futures);
+                        throw e;
+                    }
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            awaitAll(futures);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("分块处理被中断", e);
+        } catch (ExecutionException e) {
+            cancelled.set(true);
+            awaitAll(futures);
+            throw new RuntimeException("分块处理失败", e.getCause());
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 等待已提交的块全部结束，cancelled之后未开始的块会直接跳过
+     * Future.cancel不能停止正在执行的块，所以不用它；等待期间的中断和其它块的异常都忽略
+     */
+    private static void awaitAll(List<Future<?>> futures) {
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
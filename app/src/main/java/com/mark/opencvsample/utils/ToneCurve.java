@@ -0,0 +1,188 @@
+package com.mark.opencvsample.utils;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 色调曲线
+ * 把对比度/亮度、gamma、曲线等逐像素调整编译成256项查找表，用Core.LUT一次完成
+ * 相同参数的查找表会被缓存，拖动滑块时只需要一次LUT
+ */
+public class ToneCurve {
+
+    private static final int CACHE_SIZE = 32;
+
+    private static final Map<String, ToneCurve> CACHE =
+            new LinkedHashMap<String, ToneCurve>(CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ToneCurve> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    private final String key;
+    private final byte[] table;
+    private Mat lut;
+    private Mat lutWithAlpha;
+
+    private ToneCurve(String key, byte[] table) {
+        this.key = key;
+        this.table = table;
+    }
+
+    /**
+     * 对比度和亮度 dst = src * alpha + beta
+     *
+     * @param alpha 对比度 大于0
+     * @param beta  亮度
+     */
+    public static ToneCurve linear(double alpha, double beta) {
+        String key = "linear:" + alpha + ":" + beta;
+        ToneCurve curve = cached(key);
+        if (curve == null) {
+            byte[] table = new byte[256];
+            for (int i = 0; i < 256; i++) {
+                table[i] = saturate(i * alpha + beta);
+            }
+            curve = cache(key, table);
+        }
+        return curve;
+    }
+
+    /**
+     * gamma校正 dst = 255 * (src / 255) ^ gamma
+     *
+     * @param gamma 大于0，小于1变亮，大于1变暗
+     */
+    public static ToneCurve gamma(double gamma) {
+        String key = "gamma:" + gamma;
+        ToneCurve curve = cached(key);
+        if (curve == null) {
+            byte[] table = new byte[256];
+            for (int i = 0; i < 256; i++) {
+                table[i] = saturate(255.0 * Math.pow(i / 255.0, gamma));
+            }
+            curve = cache(key, table);
+        }
+        return curve;
+    }
+
+    /**
+     * 曲线 控制点之间线性插值，第一个点之前和最后一个点之后保持不变
+     *
+     * @param xs 控制点输入值 0~255 递增
+     * @param ys 控制点输出值 0~255
+     */
+    public static ToneCurve curve(int[] xs, int[] ys) {
+        if (xs.length == 0 || xs.length != ys.length) {
+            throw new IllegalArgumentException("控制点数量不正确");
+        }
+        String key = "curve:" + Arrays.toString(xs) + ":" + Arrays.toString(ys);
+        ToneCurve curve = cached(key);
+        if (curve == null) {
+            byte[] table = new byte[256];
+            int k = 0;
+            for (int i = 0; i < 256; i++) {
+                while (k < xs.length - 1 && xs[k + 1] <= i) {
+                    k++;
+                }
+                double value;
+                if (i <= xs[0]) {
+                    value = ys[0];
+                } else if (k == xs.length - 1) {
+                    value = ys[k];
+                } else {
+                    double t = (double) (i - xs[k]) / (xs[k + 1] - xs[k]);
+                    value = ys[k] + t * (ys[k + 1] - ys[k]);
+                }
+                table[i] = saturate(value);
+            }
+            curve = cache(key, table);
+        }
+        return curve;
+    }
+
+    /**
+     * 组合两个调整，先执行当前的再执行next
+     */
+    public ToneCurve then(ToneCurve next) {
+        String key = this.key + "|" + next.key;
+        ToneCurve curve = cached(key);
+        if (curve == null) {
+            byte[] combined = new byte[256];
+            for (int i = 0; i < 256; i++) {
+                combined[i] = next.table[table[i] & 0xff];
+            }
+            curve = cache(key, combined);
+        }
+        return curve;
+    }
+
+    /**
+     * 对CV_8U图像应用查找表，4通道图像的alpha通道保持不变
+     *
+     * @param dst 可以和src相同
+     */
+    public void apply(Mat src, Mat dst) {
+        Core.LUT(src, lut(src.channels()), dst);
+    }
+
+    public Mat apply(Mat src) {
+        Mat dst = new Mat();
+        apply(src, dst);
+        return dst;
+    }
+
+    private synchronized Mat lut(int channels) {
+        if (channels == 4) {
+            if (lutWithAlpha == null) {
+                byte[] data = new byte[256 * 4];
+                for (int i = 0; i < 256; i++) {
+                    data[i * 4] = table[i];
+                    data[i * 4 + 1] = table[i];
+                    data[i * 4 + 2] = table[i];
+                    data[i * 4 + 3] = (byte) i;
+                }
+                lutWithAlpha = new Mat(1, 256, CvType.CV_8UC4);
+                lutWithAlpha.put(0, 0, data);
+            }
+            return lutWithAlpha;
+        }
+        if (lut == null) {
+            lut = new Mat(1, 256, CvType.CV_8UC1);
+            lut.put(0, 0, table);
+        }
+        return lut;
+    }
+
+    private static ToneCurve cached(String key) {
+        synchronized (CACHE) {
+            return CACHE.get(key);
+        }
+    }
+
+    private static ToneCurve cache(String key, byte[] table) {
+        ToneCurve curve = new ToneCurve(key, table);
+        synchronized (CACHE) {
+            CACHE.put(key, curve);
+        }
+        return curve;
+    }
+
+    private static byte saturate(double value) {
+        long rounded = Math.round(value);
+        if (rounded < 0) {
+            return 0;
+        }
+        if (rounded > 255) {
+            return (byte) 255;
+        }
+        return (byte) rounded;
+    }
+
+}
@@ -4,14 +4,37 @@ import android.content.Context;
 import android.hardware.Camera;
 import android.util.AttributeSet;
 import android.util.Log;
+
+import com.mark.opencvsample.utils.PictureSaver;
+
 import org.opencv.android.JavaCameraView;
-import java.io.FileOutputStream;
 import java.util.List;
 
 public class CameraView extends JavaCameraView implements Camera.PictureCallback {
 
     private static final String TAG = "Sample::Tutorial3View";
+    private static final int MAX_PENDING_PICTURES = 4;
+
+    private final PictureSaver mPictureSaver = new PictureSaver(MAX_PENDING_PICTURES);
+    private volatile PictureListener mPictureListener;
     private String mPictureFileName;
+    private boolean mTakingPicture;
+    private volatile int mBurstRemaining;
+    private int mBurstIndex;
+    private String mBurstFileNamePrefix;
+    private BurstCallback mBurstCallback;
+
+    /**
+     * Notified when the pictures are written, called on a saver thread
+     */
+    public interface PictureListener {
+        void onPictureSaved(String fileName, boolean success);
+
+        /**
+         * @param saved the number of frames written successfully out of count
+         */
+        void onBurstSaved(String fileNamePrefix, int saved, int count);
+    }
 
     public CameraView(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -50,15 +73,112 @@ public class CameraView extends JavaCameraView implements Camera.PictureCallback
         return mCamera.getParameters().getPreviewSize();
     }
 
-    public void takePicture(final String fileName) {
+    public void setPictureListener(PictureListener listener) {
+        mPictureListener = listener;
+    }
+
+    public synchronized boolean takePicture(final String fileName) {
+        if (mTakingPicture) {
+            Log.w(TAG, "Previous picture is not taken yet");
+            return false;
+        }
         Log.i(TAG, "Taking picture");
         this.mPictureFileName = fileName;
-        // Postview and jpeg are sent in the same buffers if the queue is not empty when performing a capture.
-        // Clear up buffers to avoid mCamera.takePicture to be stuck because of a memory issue
-        mCamera.setPreviewCallback(null);
+        mTakingPicture = true;
+        try {
+            // Postview and jpeg are sent in the same buffers if the queue is not empty when performing a capture.
+            // Clear up buffers to avoid mCamera.takePicture to be stuck because of a memory issue
+            mCamera.setPreviewCallback(null);
+
+            // PictureCallback is implemented by the current class
+            mCamera.takePicture(null, null, this);
+        } catch (RuntimeException e) {
+            // the camera is busy or the previous capture failed
+            Log.e(TAG, "takePicture failed", e);
+            mTakingPicture = false;
+            resumePreviewCallback();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Captures the next count preview frames. The frames are encoded to jpeg and written
+     * in parallel, fileNamePrefix + index + ".jpg". The preview slows down when the writer falls behind.
+     * The listener is notified when all the frames are written.
+     *
+     * @param count - the number of frames, positive
+     * @return false if the previous burst is not captured yet
+     */
+    public synchronized boolean takeBurst(int count, String fileNamePrefix) {
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive: " + count);
+        if (mBurstRemaining > 0) {
+            Log.w(TAG, "Previous burst is not captured yet");
+            return false;
+        }
+        Log.i(TAG, "Taking burst of " + count + " frames");
+        mBurstFileNamePrefix = fileNamePrefix;
+        mBurstIndex = 0;
+        mBurstCallback = new BurstCallback(fileNamePrefix, count);
+        mBurstRemaining = count;
+        return true;
+    }
 
-        // PictureCallback is implemented by the current class
-        mCamera.takePicture(null, null, this);
+    /**
+     * Stops the picture writer, the pending pictures are still written
+     */
+    public void releasePictureSaver() {
+        mPictureSaver.release();
+    }
+
+    /**
+     * Counts the written frames of a burst
+     */
+    private class BurstCallback implements PictureSaver.Callback {
+        private final String mFileNamePrefix;
+        private final int mCount;
+        private int mDone;
+        private int mSaved;
+
+        BurstCallback(String fileNamePrefix, int count) {
+            mFileNamePrefix = fileNamePrefix;
+            mCount = count;
+        }
+
+        @Override
+        public void onSaved(String fileName, boolean success) {
+            int saved;
+            synchronized (this) {
+                if (success)
+                    mSaved++;
+                if (++mDone < mCount)
+                    return;
+                saved = mSaved;
+            }
+            PictureListener listener = mPictureListener;
+            if (listener != null)
+                listener.onBurstSaved(mFileNamePrefix, saved, mCount);
+        }
+    }
+
+    @Override
+    protected void deliverAndDrawFrame(CvCameraViewFrame frame) {
+        if (mBurstRemaining > 0) {
+            String fileName = null;
+            BurstCallback callback = null;
+            synchronized (this) {
+                if (mBurstRemaining > 0) {
+                    fileName = mBurstFileNamePrefix + mBurstIndex++ + ".jpg";
+                    callback = mBurstCallback;
+                    mBurstRemaining--;
+                }
+            }
+            // blocks while too many pictures are waiting to be written
+            if (fileName != null)
+                mPictureSaver.saveFrame(frame.rgba(), fileName, callback);
+        }
+        super.deliverAndDrawFrame(frame);
     }
 
     @Override
@@ -66,17 +186,21 @@ public class CameraView extends JavaCameraView implements Camera.PictureCallback
         Log.i(TAG, "Saving a bitmap to file");
         // The camera preview was automatically stopped. Start it again.
         mCamera.startPreview();
-        mCamera.setPreviewCallback(this);
-
-        // Write the image in a file (in jpeg format)
-        try {
-            FileOutputStream fos = new FileOutputStream(mPictureFileName);
-
-            fos.write(data);
-            fos.close();
+        resumePreviewCallback();
 
-        } catch (java.io.IOException e) {
-            Log.e("PictureDemo", "Exception in photoCallback", e);
+        // Write the image in a file (in jpeg format) in background, never blocks this thread
+        String fileName;
+        synchronized (this) {
+            fileName = mPictureFileName;
+            mTakingPicture = false;
         }
+        mPictureSaver.saveJpeg(data, fileName, new PictureSaver.Callback() {
+            @Override
+            public void onSaved(String fileName, boolean success) {
+                PictureListener listener = mPictureListener;
+                if (listener != null)
+                    listener.onPictureSaved(fileName, success);
+            }
+        });
     }
 }
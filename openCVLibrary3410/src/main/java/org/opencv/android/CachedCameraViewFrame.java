@@ -0,0 +1,92 @@
+package org.opencv.android;
+
+import org.opencv.android.CameraBridgeViewBase.CvCameraViewFrame;
+import org.opencv.core.Mat;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * This class is a camera frame which performs every color conversion at most once per frame.
+ * The RGBA image is converted on the first rgba() call and the same Mat is returned to all
+ * the following callers, the same applies to the additional BGR, HSV and half resolution gray
+ * views. The cached results are invalidated when the frame is recycled for the next camera
+ * image, the Mats themselves are kept to be reused.
+ * Attention: the returned Mats are shared, a caller modifying them in place changes them for
+ * all the other consumers of this frame. The class is not thread safe.
+ */
+public abstract class CachedCameraViewFrame implements CvCameraViewFrame {
+
+    private final Mat mRgba = new Mat();
+    private final Mat mBgr = new Mat();
+    private final Mat mHsv = new Mat();
+    private final Mat mGrayHalf = new Mat();
+    private boolean mRgbaValid;
+    private boolean mBgrValid;
+    private boolean mHsvValid;
+    private boolean mGrayHalfValid;
+
+    /**
+     * Converts the frame to RGBA, called at most once per frame
+     * @param rgba - the destination Mat, it is reallocated if needed
+     */
+    protected abstract void convertToRgba(Mat rgba);
+
+    @Override
+    public Mat rgba() {
+        if (!mRgbaValid) {
+            convertToRgba(mRgba);
+            mRgbaValid = true;
+        }
+        return mRgba;
+    }
+
+    /**
+     * This method returns 3 channel BGR Mat with frame
+     */
+    public Mat bgr() {
+        if (!mBgrValid) {
+            Imgproc.cvtColor(rgba(), mBgr, Imgproc.COLOR_RGBA2BGR);
+            mBgrValid = true;
+        }
+        return mBgr;
+    }
+
+    /**
+     * This method returns 3 channel HSV Mat with frame
+     */
+    public Mat hsv() {
+        if (!mHsvValid) {
+            Imgproc.cvtColor(bgr(), mHsv, Imgproc.COLOR_BGR2HSV);
+            mHsvValid = true;
+        }
+        return mHsv;
+    }
+
+    /**
+     * This method returns single channel gray scale Mat with frame downscaled twice in each direction
+     */
+    public Mat grayHalf() {
+        if (!mGrayHalfValid) {
+            Imgproc.pyrDown(gray(), mGrayHalf);
+            mGrayHalfValid = true;
+        }
+        return mGrayHalf;
+    }
+
+    /**
+     * Invalidates the cached views, shall be called before the frame gets new camera data
+     */
+    public void recycle() {
+        mRgbaValid = false;
+        mBgrValid = false;
+        mHsvValid = false;
+        mGrayHalfValid = false;
+    }
+
+    public void release() {
+        recycle();
+        mRgba.release();
+        mBgr.release();
+        mHsv.release();
+        mGrayHalf.release();
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import org.opencv.BuildConfig;
 import org.opencv.R;
 import org.opencv.core.Mat;
+import org.opencv.core.MatPool;
 import org.opencv.core.Size;
 
 import android.app.Activity;
@@ -49,6 +50,14 @@ public abstract class CameraBridgeViewBase extends SurfaceView implements Surfac
     protected int mCameraIndex = CAMERA_ID_ANY;
     protected boolean mEnabled;
     protected FpsMeter mFpsMeter = null;
+    private int mPipelineCapacity = 0;
+    private volatile FramePipeline mPipeline;
+    private boolean mUseGLDisplay;
+    private volatile MatGLDisplay mGLDisplay;
+    private final MatPool mFrameMatPool = new MatPool(FRAME_POOL_MATS_PER_SHAPE, FRAME_POOL_MAX_BYTES);
+
+    private static final int FRAME_POOL_MATS_PER_SHAPE = 4;
+    private static final long FRAME_POOL_MAX_BYTES = 64L * 1024 * 1024;
 
     public static final int CAMERA_ID_ANY   = -1;
     public static final int CAMERA_ID_BACK  = 99;
@@ -255,6 +264,81 @@ public abstract class CameraBridgeViewBase extends SurfaceView implements Surfac
             mFpsMeter = null;
     }
 
+    /**
+     * This method enables pipelined frame delivery. Color conversion, the onCameraFrame() callback,
+     * Mat to Bitmap conversion and drawing are then performed on separate threads connected with
+     * bounded queues, so a slow listener limits the frame rate only by its own cost.
+     * Note: onCameraFrame() may be called for the next frame while the previous one is still drawn.
+     * @param queueCapacity - the number of frames allowed to wait between two neighbour stages
+     */
+    public void enableFramePipeline(int queueCapacity) {
+        if (queueCapacity <= 0)
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        synchronized(mSyncObject) {
+            mPipelineCapacity = queueCapacity;
+            if (mState == STARTED) {
+                stopFramePipeline();
+                startFramePipeline();
+            }
+        }
+    }
+
+    /**
+     * This method restores the default delivery where all the stages are run on the camera thread
+     */
+    public void disableFramePipeline() {
+        synchronized(mSyncObject) {
+            mPipelineCapacity = 0;
+            stopFramePipeline();
+        }
+    }
+
+    /**
+     * This method enables drawing of the frames with OpenGL ES. The Mat returned by onCameraFrame()
+     * is uploaded to a texture and scaled by the GPU instead of being converted to a Bitmap and drawn
+     * with Canvas. Falls back to Canvas if OpenGL ES can't be initialized. The FPS label is not drawn
+     * in this mode. Takes effect on the next camera start.
+     */
+    public void enableGLDisplay() {
+        mUseGLDisplay = true;
+    }
+
+    public void disableGLDisplay() {
+        mUseGLDisplay = false;
+    }
+
+    /**
+     * @return the number of frames dropped by the frame pipeline because all its slots were busy
+     */
+    public long getPipelineDroppedFrames() {
+        FramePipeline pipeline = mPipeline;
+        return pipeline != null ? pipeline.getDroppedFrames() : 0;
+    }
+
+    /**
+     * This method returns the pool for the Mats returned from onCameraFrame(). A Mat acquired from
+     * this pool and returned from onCameraFrame() is released back to it once it is drawn, so the
+     * listener does no native allocation per frame. The kept Mats are deleted when the camera stops.
+     */
+    public MatPool getFrameMatPool() {
+        return mFrameMatPool;
+    }
+
+    private void startFramePipeline() {
+        if (mPipelineCapacity > 0 && mPipeline == null) {
+            FramePipeline pipeline = new FramePipeline(this, mFrameWidth, mFrameHeight, mPipelineCapacity);
+            pipeline.start();
+            mPipeline = pipeline;
+        }
+    }
+
+    private void stopFramePipeline() {
+        FramePipeline pipeline = mPipeline;
+        mPipeline = null;
+        if (pipeline != null)
+            pipeline.stop();
+    }
+
     /**
      *
      * @param listener
@@ -369,11 +453,21 @@ public abstract class CameraBridgeViewBase extends SurfaceView implements Surfac
             });
             ad.show();
 
+        } else {
+            if (mUseGLDisplay)
+                mGLDisplay = new MatGLDisplay(getHolder());
+            startFramePipeline();
         }
     }
 
     private void onExitStartedState() {
         disconnectCamera();
+        stopFramePipeline();
+        mFrameMatPool.clear();
+        if (mGLDisplay != null) {
+            mGLDisplay.release();
+            mGLDisplay = null;
+        }
         if (mCacheBitmap != null) {
             mCacheBitmap.recycle();
         }
@@ -386,12 +480,20 @@ public abstract class CameraBridgeViewBase extends SurfaceView implements Surfac
      * @param frame - the current frame to be delivered
      */
     protected void deliverAndDrawFrame(CvCameraViewFrame frame) {
-        Mat modified;
+        FramePipeline pipeline = mPipeline;
+        if (pipeline != null) {
+            pipeline.submit(frame);
+            return;
+        }
 
-        if (mListener != null) {
-            modified = mListener.onCameraFrame(frame);
-        } else {
-            modified = frame.rgba();
+        Mat modified = processFrame(frame);
+
+        if (mGLDisplay != null) {
+            if (modified != null) {
+                drawGL(modified);
+                mFrameMatPool.release(modified);
+            }
+            return;
         }
 
         boolean bmpValid = true;
@@ -404,35 +506,74 @@ public abstract class CameraBridgeViewBase extends SurfaceView implements Surfac
                 Log.e(TAG, "Utils.matToBitmap() throws an exception: " + e.getMessage());
                 bmpValid = false;
             }
+            mFrameMatPool.release(modified);
         }
 
         if (bmpValid && mCacheBitmap != null) {
-            Canvas canvas = getHolder().lockCanvas();
-            if (canvas != null) {
-                canvas.drawColor(0, android.graphics.PorterDuff.Mode.CLEAR);
-                if (BuildConfig.DEBUG)
-                    Log.d(TAG, "mStretch value: " + mScale);
-
-                if (mScale != 0) {
-                    canvas.drawBitmap(mCacheBitmap, new Rect(0,0,mCacheBitmap.getWidth(), mCacheBitmap.getHeight()),
-                         new Rect((int)((canvas.getWidth() - mScale*mCacheBitmap.getWidth()) / 2),
-                         (int)((canvas.getHeight() - mScale*mCacheBitmap.getHeight()) / 2),
-                         (int)((canvas.getWidth() - mScale*mCacheBitmap.getWidth()) / 2 + mScale*mCacheBitmap.getWidth()),
-                         (int)((canvas.getHeight() - mScale*mCacheBitmap.getHeight()) / 2 + mScale*mCacheBitmap.getHeight())), null);
-                } else {
-                     canvas.drawBitmap(mCacheBitmap, new Rect(0,0,mCacheBitmap.getWidth(), mCacheBitmap.getHeight()),
-                         new Rect((canvas.getWidth() - mCacheBitmap.getWidth()) / 2,
-                         (canvas.getHeight() - mCacheBitmap.getHeight()) / 2,
-                         (canvas.getWidth() - mCacheBitmap.getWidth()) / 2 + mCacheBitmap.getWidth(),
-                         (canvas.getHeight() - mCacheBitmap.getHeight()) / 2 + mCacheBitmap.getHeight()), null);
-                }
+            drawBitmap(mCacheBitmap);
+        }
+    }
 
-                if (mFpsMeter != null) {
-                    mFpsMeter.measure();
-                    mFpsMeter.draw(canvas, 20, 30);
-                }
-                getHolder().unlockCanvasAndPost(canvas);
+    /**
+     * Delivers the frame to the external client, returns the Mat to be displayed
+     */
+    Mat processFrame(CvCameraViewFrame frame) {
+        if (mListener != null) {
+            return mListener.onCameraFrame(frame);
+        } else {
+            return frame.rgba();
+        }
+    }
+
+    boolean isGLDisplayActive() {
+        return mGLDisplay != null;
+    }
+
+    /**
+     * Draws the Mat with OpenGL ES in the center of the surface, scaled with mScale if it is set
+     */
+    void drawGL(Mat frame) {
+        MatGLDisplay display = mGLDisplay;
+        if (display == null)
+            return;
+        if (display.draw(frame, mScale)) {
+            if (mFpsMeter != null)
+                mFpsMeter.measure();
+        } else if (!display.isAvailable()) {
+            Log.e(TAG, "OpenGL ES display is not available, falling back to Canvas");
+            mGLDisplay = null;
+        }
+    }
+
+    /**
+     * Draws the bitmap in the center of the surface, scaled with mScale if it is set
+     */
+    void drawBitmap(Bitmap bitmap) {
+        Canvas canvas = getHolder().lockCanvas();
+        if (canvas != null) {
+            canvas.drawColor(0, android.graphics.PorterDuff.Mode.CLEAR);
+            if (BuildConfig.DEBUG)
+                Log.d(TAG, "mStretch value: " + mScale);
+
+            if (mScale != 0) {
+                canvas.drawBitmap(bitmap, new Rect(0,0,bitmap.getWidth(), bitmap.getHeight()),
+                     new Rect((int)((canvas.getWidth() - mScale*bitmap.getWidth()) / 2),
+                     (int)((canvas.getHeight() - mScale*bitmap.getHeight()) / 2),
+                     (int)((canvas.getWidth() - mScale*bitmap.getWidth()) / 2 + mScale*bitmap.getWidth()),
+                     (int)((canvas.getHeight() - mScale*bitmap.getHeight()) / 2 + mScale*bitmap.getHeight())), null);
+            } else {
+                 canvas.drawBitmap(bitmap, new Rect(0,0,bitmap.getWidth(), bitmap.getHeight()),
+                     new Rect((canvas.getWidth() - bitmap.getWidth()) / 2,
+                     (canvas.getHeight() - bitmap.getHeight()) / 2,
+                     (canvas.getWidth() - bitmap.getWidth()) / 2 + bitmap.getWidth(),
+                     (canvas.getHeight() - bitmap.getHeight()) / 2 + bitmap.getHeight()), null);
+            }
+
+            if (mFpsMeter != null) {
+                mFpsMeter.measure();
+                mFpsMeter.draw(canvas, 20, 30);
             }
+            getHolder().unlockCanvasAndPost(canvas);
         }
     }
 
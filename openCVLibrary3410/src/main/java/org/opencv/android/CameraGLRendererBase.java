@@ -23,7 +23,7 @@ public abstract class CameraGLRendererBase implements GLSurfaceView.Renderer, Su
     protected final String LOGTAG = "CameraGLRendererBase";
 
     // shaders
-    private final String vss = ""
+    static final String vss = ""
             + "attribute vec2 vPosition;\n"
             + "attribute vec2 vTexCoord;\n" + "varying vec2 texCoord;\n"
             + "void main() {\n" + "  texCoord = vTexCoord;\n"
@@ -38,7 +38,7 @@ public abstract class CameraGLRendererBase implements GLSurfaceView.Renderer, Su
             + "void main() {\n"
             + "  gl_FragColor = texture2D(sTexture,texCoord);\n" + "}";
 
-    private final String fss2D = ""
+    static final String fss2D = ""
             + "precision mediump float;\n"
             + "uniform sampler2D sTexture;\n"
             + "varying vec2 texCoord;\n"
@@ -214,7 +214,7 @@ public abstract class CameraGLRendererBase implements GLSurfaceView.Renderer, Su
         }
     }
 
-    private static int loadShader(String vss, String fss) {
+    static int loadShader(String vss, String fss) {
         Log.d("CameraGLRendererBase", "loadShader");
         int vshader = GLES20.glCreateShader(GLES20.GL_VERTEX_SHADER);
         GLES20.glShaderSource(vshader, vss);
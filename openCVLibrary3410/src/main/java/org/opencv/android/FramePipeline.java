@@ -0,0 +1,334 @@
+package org.opencv.android;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opencv.android.CameraBridgeViewBase.CvCameraViewFrame;
+import org.opencv.core.Mat;
+import org.opencv.imgproc.Imgproc;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+
+/**
+ * This class implements the pipelined frame delivery of CameraBridgeViewBase.
+ * A delivered frame is copied into a free slot on the camera thread (capture stage) and then
+ * passes through convert, process (the listener callback), upload (Mat to Bitmap) and draw stages.
+ * Every stage runs on its own thread and the stages are connected with bounded queues, so the
+ * throughput is limited by the slowest stage instead of the sum of all of them.
+ * When all slots are in flight the newly captured frame is dropped, the camera is never blocked.
+ */
+class FramePipeline {
+
+    private static final String TAG = "FramePipeline";
+    private static final int STAGES_COUNT = 4;
+
+    /**
+     * Frames which are able to expose their raw YUV data. The pipeline copies the raw data only
+     * and defers the color conversion to the convert stage.
+     */
+    interface YuvFrame {
+        /**
+         * This method returns the raw YUV Mat of the frame. It is valid during the capture call only.
+         */
+        public Mat yuv();
+
+        /**
+         * This method returns the Imgproc.cvtColor code converting yuv() to RGBA.
+         */
+        public int rgbaConversion();
+    }
+
+    private final CameraBridgeViewBase mView;
+    private final int mWidth;
+    private final int mHeight;
+    private final PipelineFrame[] mFrames;
+
+    private final BlockingQueue<PipelineFrame> mFree;
+    private final BlockingQueue<PipelineFrame> mCaptured;
+    private final BlockingQueue<PipelineFrame> mConverted;
+    private final BlockingQueue<PipelineFrame> mProcessed;
+    private final BlockingQueue<PipelineFrame> mUploaded;
+
+    private final Thread[] mThreads = new Thread[STAGES_COUNT];
+    private final Object mCaptureLock = new Object();
+    private volatile boolean mRunning;
+
+    private final AtomicLong mDroppedFrames = new AtomicLong();
+
+    FramePipeline(CameraBridgeViewBase view, int width, int height, int queueCapacity) {
+        if (queueCapacity <= 0)
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        mView = view;
+        mWidth = width;
+        mHeight = height;
+
+        // every stage may hold one frame in addition to the frames waiting in the queues
+        int framesCount = queueCapacity + STAGES_COUNT;
+        mFrames = new PipelineFrame[framesCount];
+        mFree = new ArrayBlockingQueue<PipelineFrame>(framesCount);
+        for (int i = 0; i < framesCount; i++) {
+            mFrames[i] = new PipelineFrame();
+            mFree.add(mFrames[i]);
+        }
+        mCaptured = new ArrayBlockingQueue<PipelineFrame>(queueCapacity);
+        mConverted = new ArrayBlockingQueue<PipelineFrame>(queueCapacity);
+        mProcessed = new ArrayBlockingQueue<PipelineFrame>(queueCapacity);
+        mUploaded = new ArrayBlockingQueue<PipelineFrame>(queueCapacity);
+    }
+
+    void start() {
+        mRunning = true;
+        mThreads[0] = new Thread(new ConvertStage(), "OpenCVPipelineConvert");
+        mThreads[1] = new Thread(new ProcessStage(), "OpenCVPipelineProcess");
+        mThreads[2] = new Thread(new UploadStage(), "OpenCVPipelineUpload");
+        mThreads[3] = new Thread(new DrawStage(), "OpenCVPipelineDraw");
+        for (Thread thread : mThreads)
+            thread.start();
+    }
+
+    /**
+     * Stops all the stage threads, drops the frames in flight and releases the slots.
+     */
+    void stop() {
+        Log.d(TAG, "Stopping pipeline, dropped frames: " + mDroppedFrames.get());
+        synchronized (mCaptureLock) {
+            mRunning = false;
+        }
+        for (Thread thread : mThreads) {
+            if (thread != null)
+                thread.interrupt();
+        }
+        for (Thread thread : mThreads) {
+            if (thread == null)
+                continue;
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Log.e(TAG, "Interrupted while waiting for " + thread.getName(), e);
+            }
+        }
+        for (PipelineFrame frame : mFrames)
+            frame.release();
+    }
+
+    /**
+     * Capture stage, called on the camera thread. The frame is copied so that the camera can
+     * reuse its buffer as soon as this method returns.
+     * @return false if the frame was dropped because the pipeline is full
+     */
+    boolean submit(CvCameraViewFrame frame) {
+        synchronized (mCaptureLock) {
+            if (!mRunning)
+                return false;
+            PipelineFrame slot = mFree.poll();
+            if (slot == null) {
+                mDroppedFrames.incrementAndGet();
+                return false;
+            }
+            slot.capture(frame);
+            mCaptured.add(slot);
+            return true;
+        }
+    }
+
+    long getDroppedFrames() {
+        return mDroppedFrames.get();
+    }
+
+    private abstract class Stage implements Runnable {
+        private final BlockingQueue<PipelineFrame> mInput;
+        private final BlockingQueue<PipelineFrame> mOutput;
+
+        Stage(BlockingQueue<PipelineFrame> input, BlockingQueue<PipelineFrame> output) {
+            mInput = input;
+            mOutput = output;
+        }
+
+        /**
+         * Handles the frame. Returns false if the frame shall not be passed to the next stage.
+         */
+        protected abstract boolean handle(PipelineFrame frame);
+
+        @Override
+        public void run() {
+            try {
+                while (mRunning) {
+                    PipelineFrame frame = mInput.take();
+                    boolean passed = false;
+                    try {
+                        passed = handle(frame);
+                    } catch (RuntimeException e) {
+                        Log.e(TAG, Thread.currentThread().getName() + " failed", e);
+                    }
+                    if (passed && mOutput != null)
+                        mOutput.put(frame);
+                    else
+                        mFree.put(frame);
+                }
+            } catch (InterruptedException e) {
+                /* the pipeline is being stopped */
+            }
+            Log.d(TAG, "Finish " + Thread.currentThread().getName());
+        }
+    }
+
+    private class ConvertStage extends Stage {
+        ConvertStage() {
+            super(mCaptured, mConverted);
+        }
+
+        @Override
+        protected boolean handle(PipelineFrame frame) {
+            frame.convert();
+            return true;
+        }
+    }
+
+    private class ProcessStage extends Stage {
+        ProcessStage() {
+            super(mConverted, mProcessed);
+        }
+
+        @Override
+        protected boolean handle(PipelineFrame frame) {
+            Mat modified = mView.processFrame(frame);
+            boolean passed = frame.process(modified);
+            if (modified != null)
+                mView.getFrameMatPool().release(modified);
+            return passed;
+        }
+    }
+
+    private class UploadStage extends Stage {
+        UploadStage() {
+            super(mProcessed, mUploaded);
+        }
+
+        @Override
+        protected boolean handle(PipelineFrame frame) {
+            return frame.upload();
+        }
+    }
+
+    private class DrawStage extends Stage {
+        DrawStage() {
+            super(mUploaded, null);
+        }
+
+        @Override
+        protected boolean handle(PipelineFrame frame) {
+            if (frame.mBitmap == null)
+                mView.drawGL(frame.mOutput);
+            else
+                mView.drawBitmap(frame.mBitmap);
+            return false;
+        }
+    }
+
+    private class PipelineFrame extends CachedCameraViewFrame {
+        @Override
+        public Mat gray() {
+            if (mGray == null) {
+                if (mRgbaConversion >= 0) {
+                    mGray = mRaw.submat(0, mHeight, 0, mWidth);
+                } else {
+                    mGray = new Mat();
+                    Imgproc.cvtColor(rgba(), mGray, Imgproc.COLOR_RGBA2GRAY);
+                }
+            }
+            return mGray;
+        }
+
+        @Override
+        protected void convertToRgba(Mat rgba) {
+            if (mRgbaConversion >= 0)
+                Imgproc.cvtColor(mRaw, rgba, mRgbaConversion, 4);
+            else
+                mRaw.copyTo(rgba);
+        }
+
+        void capture(CvCameraViewFrame frame) {
+            recycle();
+            if (mGray != null) {
+                mGray.release();
+                mGray = null;
+            }
+            if (frame instanceof YuvFrame) {
+                YuvFrame yuvFrame = (YuvFrame) frame;
+                yuvFrame.yuv().copyTo(mRaw);
+                mRgbaConversion = yuvFrame.rgbaConversion();
+            } else {
+                /* no access to the raw data, the conversion happens on the camera thread */
+                frame.rgba().copyTo(mRaw);
+                mRgbaConversion = -1;
+            }
+        }
+
+        void convert() {
+            rgba();
+        }
+
+        boolean process(Mat modified) {
+            if (modified == null)
+                return false;
+            if (modified == rgba()) {
+                mOutput = modified;
+            } else {
+                /* the listener may reuse the returned Mat for the next frame */
+                modified.copyTo(mResult);
+                mOutput = mResult;
+            }
+            return true;
+        }
+
+        boolean upload() {
+            if (mView.isGLDisplayActive()) {
+                /* the texture is uploaded by the draw stage which owns the GL context */
+                if (mBitmap != null) {
+                    mBitmap.recycle();
+                    mBitmap = null;
+                }
+                return true;
+            }
+            int width = mOutput.cols();
+            int height = mOutput.rows();
+            if (mBitmap == null || mBitmap.getWidth() != width || mBitmap.getHeight() != height) {
+                if (mBitmap != null)
+                    mBitmap.recycle();
+                mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            }
+            try {
+                Utils.matToBitmap(mOutput, mBitmap);
+            } catch(Exception e) {
+                Log.e(TAG, "Mat type: " + mOutput);
+                Log.e(TAG, "Utils.matToBitmap() throws an exception: " + e.getMessage());
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void release() {
+            super.release();
+            mRaw.release();
+            mResult.release();
+            if (mGray != null) {
+                mGray.release();
+                mGray = null;
+            }
+            if (mBitmap != null) {
+                mBitmap.recycle();
+                mBitmap = null;
+            }
+        }
+
+        private Mat mRaw = new Mat();
+        private Mat mResult = new Mat();
+        private Mat mGray;
+        private Mat mOutput;
+        private Bitmap mBitmap;
+        private int mRgbaConversion = -1;
+    };
+}
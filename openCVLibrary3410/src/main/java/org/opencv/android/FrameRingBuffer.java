@@ -0,0 +1,128 @@
+package org.opencv.android;
+
+/**
+ * This class implements slot bookkeeping of the JavaCameraView frame chain.
+ * The camera thread acquires a free slot, fills it and commits it as pending. The worker thread
+ * acquires a pending slot, delivers it and releases it back. When no slot is free the behaviour
+ * is selected by the drop policy: the oldest pending frame is overwritten (LATEST_WINS,
+ * DROP_OLDEST) or the camera thread waits for the worker (BLOCK).
+ * With LATEST_WINS the worker always takes the newest pending frame and the older ones are dropped.
+ * With pooled preview buffers the free slots are the ones the producer hands back to the camera.
+ */
+class FrameRingBuffer {
+
+    static final int LATEST_WINS = 0;
+    static final int DROP_OLDEST = 1;
+    static final int BLOCK = 2;
+
+    private final int mPolicy;
+    private final int[] mFree;
+    private int mFreeCount;
+    private final int[] mPending;
+    private int mPendingHead;
+    private int mPendingCount;
+    private boolean mStopped;
+
+    private long mDroppedFrames;
+    private long mBlockedFrames;
+
+    FrameRingBuffer(int slotsCount, int policy) {
+        if (slotsCount < 2)
+            throw new IllegalArgumentException("At least 2 slots are required: " + slotsCount);
+        if (policy != LATEST_WINS && policy != DROP_OLDEST && policy != BLOCK)
+            throw new IllegalArgumentException("Unknown drop policy: " + policy);
+        mPolicy = policy;
+        mFree = new int[slotsCount];
+        mPending = new int[slotsCount];
+        for (int i = 0; i < slotsCount; i++)
+            mFree[i] = i;
+        mFreeCount = slotsCount;
+    }
+
+    /**
+     * Returns a slot to be filled by the camera thread or -1 if the buffer is stopped.
+     * With BLOCK policy and no free slot it waits if wait is set, otherwise returns -1.
+     */
+    synchronized int acquireWrite(boolean wait) {
+        if (mFreeCount == 0 && mPolicy == BLOCK) {
+            if (!wait)
+                return -1;
+            /* counted only when the camera thread really waits for the worker */
+            mBlockedFrames++;
+            try {
+                while (mFreeCount == 0 && !mStopped)
+                    wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+        if (mStopped)
+            return -1;
+        if (mFreeCount > 0)
+            return mFree[--mFreeCount];
+
+        // overwrite the oldest pending frame
+        int slot = mPending[mPendingHead];
+        mPendingHead = (mPendingHead + 1) % mPending.length;
+        mPendingCount--;
+        mDroppedFrames++;
+        return slot;
+    }
+
+    /**
+     * Returns a free slot or -1, never drops a pending frame
+     */
+    synchronized int pollFree() {
+        if (mStopped || mFreeCount == 0)
+            return -1;
+        return mFree[--mFreeCount];
+    }
+
+    synchronized void commitWrite(int slot) {
+        mPending[(mPendingHead + mPendingCount) % mPending.length] = slot;
+        mPendingCount++;
+        notifyAll();
+    }
+
+    /**
+     * Blocks until a frame is pending and returns its slot or -1 if the buffer is stopped
+     */
+    synchronized int acquireRead() throws InterruptedException {
+        while (mPendingCount == 0 && !mStopped)
+            wait();
+        if (mStopped)
+            return -1;
+
+        if (mPolicy == LATEST_WINS) {
+            while (mPendingCount > 1) {
+                mFree[mFreeCount++] = mPending[mPendingHead];
+                mPendingHead = (mPendingHead + 1) % mPending.length;
+                mPendingCount--;
+                mDroppedFrames++;
+            }
+        }
+        int slot = mPending[mPendingHead];
+        mPendingHead = (mPendingHead + 1) % mPending.length;
+        mPendingCount--;
+        return slot;
+    }
+
+    synchronized void releaseRead(int slot) {
+        mFree[mFreeCount++] = slot;
+        notifyAll();
+    }
+
+    synchronized void stop() {
+        mStopped = true;
+        notifyAll();
+    }
+
+    synchronized long getDroppedFrames() {
+        return mDroppedFrames;
+    }
+
+    synchronized long getBlockedFrames() {
+        return mBlockedFrames;
+    }
+}
@@ -54,6 +54,12 @@ public class JavaCamera2View extends CameraBridgeViewBase {
 
     private HandlerThread mBackgroundThread;
     private Handler mBackgroundHandler;
+    private HandlerThread mProcessingThread;
+    private Handler mProcessingHandler;
+
+    private int mImageReaderDepth = 2;
+    private JavaCamera2Frame[] mFramePool;
+    private int mFreeFramesCount;
 
     public JavaCamera2View(Context context, int cameraId) {
         super(context, cameraId);
@@ -63,12 +69,27 @@ public class JavaCamera2View extends CameraBridgeViewBase {
         super(context, attrs);
     }
 
+    /**
+     * This method sets the maximum number of images the ImageReader may hold. All of them but one
+     * can be waiting for processing or being processed, the camera thread keeps acquiring the newest
+     * image meanwhile. Takes effect on the next preview session.
+     * @param maxImages - the ImageReader depth, at least 2
+     */
+    public void setImageReaderDepth(int maxImages) {
+        if (maxImages < 2)
+            throw new IllegalArgumentException("ImageReader depth must be at least 2: " + maxImages);
+        mImageReaderDepth = maxImages;
+    }
+
     private void startBackgroundThread() {
         Log.i(LOGTAG, "startBackgroundThread");
         stopBackgroundThread();
         mBackgroundThread = new HandlerThread("OpenCVCameraBackground");
         mBackgroundThread.start();
         mBackgroundHandler = new Handler(mBackgroundThread.getLooper());
+        mProcessingThread = new HandlerThread("OpenCVCameraProcessing");
+        mProcessingThread.start();
+        mProcessingHandler = new Handler(mProcessingThread.getLooper());
     }
 
     private void stopBackgroundThread() {
@@ -83,6 +104,57 @@ public class JavaCamera2View extends CameraBridgeViewBase {
         } catch (InterruptedException e) {
             Log.e(LOGTAG, "stopBackgroundThread", e);
         }
+        /* the camera thread is stopped, no more frames are posted for processing */
+        mProcessingThread.quitSafely();
+        try {
+            mProcessingThread.join();
+            mProcessingThread = null;
+            mProcessingHandler = null;
+        } catch (InterruptedException e) {
+            Log.e(LOGTAG, "stopBackgroundThread", e);
+        }
+        releaseFramePool();
+    }
+
+    /**
+     * Frames are reused to avoid allocation of Mats per image. One image of the reader is left
+     * for acquireLatestImage(), the rest may be held by frames being processed.
+     */
+    private synchronized void allocateFramePool() {
+        if (mFramePool != null && mFramePool.length == mImageReaderDepth - 1)
+            return;
+        releaseFramePool();
+        mFramePool = new JavaCamera2Frame[mImageReaderDepth - 1];
+        for (int i = 0; i < mFramePool.length; i++)
+            mFramePool[i] = new JavaCamera2Frame();
+        mFreeFramesCount = mFramePool.length;
+    }
+
+    private synchronized void releaseFramePool() {
+        if (mFramePool == null)
+            return;
+        for (JavaCamera2Frame frame : mFramePool) {
+            if (frame != null)
+                frame.release();
+        }
+        mFramePool = null;
+        mFreeFramesCount = 0;
+    }
+
+    private synchronized JavaCamera2Frame obtainFrame() {
+        if (mFreeFramesCount == 0)
+            return null;
+        JavaCamera2Frame frame = mFramePool[--mFreeFramesCount];
+        mFramePool[mFreeFramesCount] = null;
+        return frame;
+    }
+
+    private synchronized void recycleFrame(JavaCamera2Frame frame) {
+        frame.recycle();
+        if (mFramePool != null && mFreeFramesCount < mFramePool.length)
+            mFramePool[mFreeFramesCount++] = frame;
+        else
+            frame.release();
     }
 
     protected boolean initializeCamera() {
@@ -170,7 +242,8 @@ public class JavaCamera2View extends CameraBridgeViewBase {
                 return;
             }
 
-            mImageReader = ImageReader.newInstance(w, h, mPreviewFormat, 2);
+            allocateFramePool();
+            mImageReader = ImageReader.newInstance(w, h, mPreviewFormat, mImageReaderDepth);
             mImageReader.setOnImageAvailableListener(new ImageReader.OnImageAvailableListener() {
                 @Override
                 public void onImageAvailable(ImageReader reader) {
@@ -183,10 +256,17 @@ public class JavaCamera2View extends CameraBridgeViewBase {
                     assert (planes.length == 3);
                     assert (image.getFormat() == mPreviewFormat);
 
-                    JavaCamera2Frame tempFrame = new JavaCamera2Frame(image);
-                    deliverAndDrawFrame(tempFrame);
-                    tempFrame.release();
-                    image.close();
+                    Handler handler = mProcessingHandler;
+                    JavaCamera2Frame frame = obtainFrame();
+                    if (frame == null || handler == null) {
+                        // all the frames are busy, drop the image
+                        if (frame != null)
+                            recycleFrame(frame);
+                        image.close();
+                        return;
+                    }
+                    frame.setImage(image);
+                    handler.post(frame);
                 }
             }, mBackgroundHandler);
             Surface surface = mImageReader.getSurface();
@@ -327,9 +407,11 @@ public class JavaCamera2View extends CameraBridgeViewBase {
         return true;
     }
 
-    private class JavaCamera2Frame implements CvCameraViewFrame {
+    private class JavaCamera2Frame extends CachedCameraViewFrame implements Runnable {
         @Override
         public Mat gray() {
+            if (mGray != null)
+                return mGray;
             Image.Plane[] planes = mImage.getPlanes();
             int w = mImage.getWidth();
             int h = mImage.getHeight();
@@ -341,7 +423,7 @@ public class JavaCamera2View extends CameraBridgeViewBase {
         }
 
         @Override
-        public Mat rgba() {
+        protected void convertToRgba(Mat rgba) {
             Image.Plane[] planes = mImage.getPlanes();
             int w = mImage.getWidth();
             int h = mImage.getHeight();
@@ -363,14 +445,20 @@ public class JavaCamera2View extends CameraBridgeViewBase {
                 long addr_diff = uv_mat2.dataAddr() - uv_mat1.dataAddr();
                 if (addr_diff > 0) {
                     assert(addr_diff == 1);
-                    Imgproc.cvtColorTwoPlane(y_mat, uv_mat1, mRgba, Imgproc.COLOR_YUV2RGBA_NV12);
+                    Imgproc.cvtColorTwoPlane(y_mat, uv_mat1, rgba, Imgproc.COLOR_YUV2RGBA_NV12);
                 } else {
                     assert(addr_diff == -1);
-                    Imgproc.cvtColorTwoPlane(y_mat, uv_mat2, mRgba, Imgproc.COLOR_YUV2RGBA_NV21);
+                    Imgproc.cvtColorTwoPlane(y_mat, uv_mat2, rgba, Imgproc.COLOR_YUV2RGBA_NV21);
                 }
-                return mRgba;
+                // headers over the image planes, don't leave them to the finalizer
+                y_mat.release();
+                uv_mat1.release();
+                uv_mat2.release();
             } else { // Chroma channels are not interleaved
-                byte[] yuv_bytes = new byte[w*(h+h/2)];
+                if (mYuvBytes == null || mYuvBytes.length != w*(h+h/2)) {
+                    mYuvBytes = new byte[w*(h+h/2)];
+                }
+                byte[] yuv_bytes = mYuvBytes;
                 ByteBuffer y_plane = planes[0].getBuffer();
                 ByteBuffer u_plane = planes[1].getBuffer();
                 ByteBuffer v_plane = planes[2].getBuffer();
@@ -420,28 +508,49 @@ public class JavaCamera2View extends CameraBridgeViewBase {
                     }
                 }
 
-                Mat yuv_mat = new Mat(h+h/2, w, CvType.CV_8UC1);
-                yuv_mat.put(0, 0, yuv_bytes);
-                Imgproc.cvtColor(yuv_mat, mRgba, Imgproc.COLOR_YUV2RGBA_I420, 4);
-                return mRgba;
+                mYuvMat.create(h+h/2, w, CvType.CV_8UC1);
+                mYuvMat.put(0, 0, yuv_bytes);
+                Imgproc.cvtColor(mYuvMat, rgba, Imgproc.COLOR_YUV2RGBA_I420, 4);
             }
         }
 
 
-        public JavaCamera2Frame(Image image) {
+        public JavaCamera2Frame() {
             super();
+        }
+
+        public void setImage(Image image) {
             mImage = image;
-            mRgba = new Mat();
-            mGray = new Mat();
         }
 
+        @Override
+        public void run() {
+            deliverAndDrawFrame(this);
+            recycleFrame(this);
+        }
+
+        @Override
+        public void recycle() {
+            super.recycle();
+            if (mGray != null) {
+                mGray.release();
+                mGray = null;
+            }
+            if (mImage != null) {
+                mImage.close();
+                mImage = null;
+            }
+        }
+
+        @Override
         public void release() {
-            mRgba.release();
-            mGray.release();
+            super.release();
+            mYuvMat.release();
         }
 
         private Image mImage;
-        private Mat mRgba;
         private Mat mGray;
+        private final Mat mYuvMat = new Mat();
+        private byte[] mYuvBytes;
     };
 }
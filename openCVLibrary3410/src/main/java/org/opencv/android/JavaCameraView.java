@@ -32,9 +32,23 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
     private static final int MAGIC_TEXTURE_ID = 10;
     private static final String TAG = "JavaCameraView";
 
+    /** When the frame chain is full the oldest pending frame is dropped and the worker takes the newest one */
+    public static final int FRAME_DROP_LATEST_WINS = FrameRingBuffer.LATEST_WINS;
+    /** When the frame chain is full the oldest pending frame is dropped, the rest are delivered in order */
+    public static final int FRAME_DROP_OLDEST = FrameRingBuffer.DROP_OLDEST;
+    /** When the frame chain is full the camera callback waits for the worker, no frame is dropped */
+    public static final int FRAME_DROP_BLOCK = FrameRingBuffer.BLOCK;
+
     private byte mBuffer[];
     private Mat[] mFrameChain;
-    private int mChainIdx = 0;
+    private FrameRingBuffer mFrameBuffer;
+    private int mFrameChainSize = 2;
+    private int mFrameDropPolicy = FRAME_DROP_LATEST_WINS;
+    private boolean mPooledBuffersRequested;
+    private boolean mPooledBuffers;
+    private byte[][] mCallbackBuffers;
+    private boolean[] mQueuedBuffers;
+    private int mQueuedBuffersCount;
     private Thread mThread;
     private boolean mStopThread;
 
@@ -66,6 +80,50 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
         super(context, attrs);
     }
 
+    /**
+     * This method sets the number of frames the camera may fill while the processing thread is busy
+     * and the policy applied when all of them are filled. Takes effect on the next camera connection.
+     * Note: FRAME_DROP_BLOCK stalls the thread the preview callbacks are delivered on.
+     * @param chainSize - the number of frame slots including the one being processed, at least 2
+     * @param dropPolicy - FRAME_DROP_LATEST_WINS, FRAME_DROP_OLDEST or FRAME_DROP_BLOCK
+     */
+    public void setFrameChain(int chainSize, int dropPolicy) {
+        if (chainSize < 2)
+            throw new IllegalArgumentException("Frame chain size must be at least 2: " + chainSize);
+        if (dropPolicy != FRAME_DROP_LATEST_WINS && dropPolicy != FRAME_DROP_OLDEST && dropPolicy != FRAME_DROP_BLOCK)
+            throw new IllegalArgumentException("Unknown frame drop policy: " + dropPolicy);
+        mFrameChainSize = chainSize;
+        mFrameDropPolicy = dropPolicy;
+    }
+
+    /**
+     * This method enables pooled preview buffers. The camera fills a pool of callback buffers (one per
+     * frame chain slot) instead of a single one, so the preview callback does no copy and never waits
+     * for the processing thread. The processing thread copies a buffer into its frame Mat right before
+     * delivering it and gives the buffer back to the camera afterwards. The copy itself can't be
+     * avoided: the camera only fills byte arrays and the Java API can't wrap an array with a Mat.
+     * Takes effect on the next camera connection.
+     */
+    public void setPooledPreviewBuffers(boolean enabled) {
+        mPooledBuffersRequested = enabled;
+    }
+
+    /**
+     * @return the number of frames dropped since the camera was connected
+     */
+    public long getDroppedFrameCount() {
+        FrameRingBuffer buffer = mFrameBuffer;
+        return buffer != null ? buffer.getDroppedFrames() : 0;
+    }
+
+    /**
+     * @return the number of frames the camera callback had to wait for a free slot (FRAME_DROP_BLOCK only)
+     */
+    public long getBlockedFrameCount() {
+        FrameRingBuffer buffer = mFrameBuffer;
+        return buffer != null ? buffer.getBlockedFrames() : 0;
+    }
+
     protected boolean initializeCamera(int width, int height) {
         Log.d(TAG, "Initialize java camera");
         boolean result = true;
@@ -190,20 +248,32 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
 
                     int size = mFrameWidth * mFrameHeight;
                     size  = size * ImageFormat.getBitsPerPixel(params.getPreviewFormat()) / 8;
-                    mBuffer = new byte[size];
 
-                    mCamera.addCallbackBuffer(mBuffer);
+                    mFrameChain = new Mat[mFrameChainSize];
+                    mFrameBuffer = new FrameRingBuffer(mFrameChainSize, mFrameDropPolicy);
+                    for (int i = 0; i < mFrameChainSize; i++)
+                        mFrameChain[i] = new Mat(mFrameHeight + (mFrameHeight/2), mFrameWidth, CvType.CV_8UC1);
+                    mPooledBuffers = mPooledBuffersRequested;
+                    if (mPooledBuffers) {
+                        Log.d(TAG, "Preview with " + mFrameChainSize + " pooled callback buffers");
+                        mCallbackBuffers = new byte[mFrameChainSize][];
+                        for (int i = 0; i < mFrameChainSize; i++)
+                            mCallbackBuffers[i] = new byte[size];
+                        mQueuedBuffers = new boolean[mFrameChainSize];
+                        mQueuedBuffersCount = 0;
+                        for (int i = 0; i < mFrameChainSize; i++)
+                            queueCallbackBuffer(mFrameBuffer.acquireWrite(false));
+                    } else {
+                        mBuffer = new byte[size];
+                        mCamera.addCallbackBuffer(mBuffer);
+                    }
                     mCamera.setPreviewCallbackWithBuffer(this);
 
-                    mFrameChain = new Mat[2];
-                    mFrameChain[0] = new Mat(mFrameHeight + (mFrameHeight/2), mFrameWidth, CvType.CV_8UC1);
-                    mFrameChain[1] = new Mat(mFrameHeight + (mFrameHeight/2), mFrameWidth, CvType.CV_8UC1);
-
                     AllocateCache();
 
-                    mCameraFrame = new JavaCameraFrame[2];
-                    mCameraFrame[0] = new JavaCameraFrame(mFrameChain[0], mFrameWidth, mFrameHeight);
-                    mCameraFrame[1] = new JavaCameraFrame(mFrameChain[1], mFrameWidth, mFrameHeight);
+                    mCameraFrame = new JavaCameraFrame[mFrameChainSize];
+                    for (int i = 0; i < mFrameChainSize; i++)
+                        mCameraFrame[i] = new JavaCameraFrame(mFrameChain[i], mFrameWidth, mFrameHeight);
 
                     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
                         mSurfaceTexture = new SurfaceTexture(MAGIC_TEXTURE_ID);
@@ -226,6 +296,62 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
         return result;
     }
 
+    /**
+     * Hands the pooled slot buffer to the camera. Called when this lock is held.
+     */
+    private void queueCallbackBuffer(int slot) {
+        if (slot < 0 || mQueuedBuffers[slot])
+            return;
+        mQueuedBuffers[slot] = true;
+        mQueuedBuffersCount++;
+        if (mCamera != null)
+            mCamera.addCallbackBuffer(mCallbackBuffers[slot]);
+    }
+
+    /**
+     * Gives the released pooled buffers back to the camera. If the camera has no buffer left
+     * the oldest pending frame is dropped to keep the preview running, unless the policy is BLOCK.
+     */
+    private synchronized void recycleCallbackBuffers(boolean starving) {
+        if (mCallbackBuffers == null)
+            return;
+        int slot;
+        while ((slot = mFrameBuffer.pollFree()) >= 0)
+            queueCallbackBuffer(slot);
+        if (starving && mQueuedBuffersCount == 0)
+            queueCallbackBuffer(mFrameBuffer.acquireWrite(false));
+    }
+
+    /**
+     * Restores the preview callback after it has been reset, e.g. by taking a picture.
+     * Setting a new callback clears the camera buffer queue, so all the buffers not
+     * holding a frame are queued again.
+     */
+    protected synchronized void resumePreviewCallback() {
+        if (mCamera == null)
+            return;
+        if (mPooledBuffers) {
+            mCamera.setPreviewCallbackWithBuffer(this);
+            for (int i = 0; i < mCallbackBuffers.length; i++) {
+                if (mQueuedBuffers[i])
+                    mCamera.addCallbackBuffer(mCallbackBuffers[i]);
+            }
+            recycleCallbackBuffers(true);
+        } else {
+            mCamera.setPreviewCallbackWithBuffer(this);
+            mCamera.addCallbackBuffer(mBuffer);
+        }
+    }
+
+    /**
+     * Copies the pooled buffer of the slot into its frame Mat, the buffer is not queued to the
+     * camera until the slot is released by the processing thread
+     */
+    private synchronized void copyCallbackBuffer(int slot) {
+        if (mCallbackBuffers != null)
+            mFrameChain[slot].put(0, 0, mCallbackBuffers[slot]);
+    }
+
     protected void releaseCamera() {
         synchronized (this) {
             if (mCamera != null) {
@@ -236,18 +362,20 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
             }
             mCamera = null;
             if (mFrameChain != null) {
-                mFrameChain[0].release();
-                mFrameChain[1].release();
+                for (Mat frame : mFrameChain) {
+                    if (frame != null)
+                        frame.release();
+                }
             }
+            mCallbackBuffers = null;
+            mQueuedBuffers = null;
             if (mCameraFrame != null) {
-                mCameraFrame[0].release();
-                mCameraFrame[1].release();
+                for (JavaCameraFrame frame : mCameraFrame)
+                    frame.release();
             }
         }
     }
 
-    private boolean mCameraFrameReady = false;
-
     @Override
     protected boolean connectCamera(int width, int height) {
 
@@ -259,8 +387,6 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
         if (!initializeCamera(width, height))
             return false;
 
-        mCameraFrameReady = false;
-
         /* now we can start update thread */
         Log.d(TAG, "Starting processing thread");
         mStopThread = false;
@@ -279,9 +405,8 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
         try {
             mStopThread = true;
             Log.d(TAG, "Notify thread");
-            synchronized (this) {
-                this.notify();
-            }
+            if (mFrameBuffer != null)
+                mFrameBuffer.stop();
             Log.d(TAG, "Waiting for thread");
             if (mThread != null)
                 mThread.join();
@@ -293,39 +418,73 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
 
         /* Now release camera */
         releaseCamera();
-
-        mCameraFrameReady = false;
     }
 
     @Override
     public void onPreviewFrame(byte[] frame, Camera arg1) {
         if (BuildConfig.DEBUG)
             Log.d(TAG, "Preview Frame received. Frame size: " + frame.length);
-        synchronized (this) {
-            mFrameChain[mChainIdx].put(0, 0, frame);
-            mCameraFrameReady = true;
-            this.notify();
+        FrameRingBuffer buffer = mFrameBuffer;
+        if (mPooledBuffers) {
+            int slot = -1;
+            synchronized (this) {
+                if (mCallbackBuffers == null)
+                    return;
+                for (int i = 0; i < mCallbackBuffers.length; i++) {
+                    if (mCallbackBuffers[i] == frame) {
+                        slot = i;
+                        break;
+                    }
+                }
+                if (slot < 0 || !mQueuedBuffers[slot]) {
+                    Log.e(TAG, "Preview frame is not delivered in a pooled buffer");
+                    return;
+                }
+                mQueuedBuffers[slot] = false;
+                mQueuedBuffersCount--;
+            }
+            buffer.commitWrite(slot);
+            recycleCallbackBuffers(true);
+            return;
+        }
+
+        int slot = buffer != null ? buffer.acquireWrite(true) : -1;
+        if (slot >= 0) {
+            synchronized (this) {
+                mFrameChain[slot].put(0, 0, frame);
+            }
+            buffer.commitWrite(slot);
         }
         if (mCamera != null)
             mCamera.addCallbackBuffer(mBuffer);
     }
 
-    private class JavaCameraFrame implements CvCameraViewFrame {
+    private class JavaCameraFrame extends CachedCameraViewFrame implements FramePipeline.YuvFrame {
         @Override
         public Mat gray() {
-            return mYuvFrameData.submat(0, mHeight, 0, mWidth);
+            if (mGray == null)
+                mGray = mYuvFrameData.submat(0, mHeight, 0, mWidth);
+            return mGray;
+        }
+
+        @Override
+        protected void convertToRgba(Mat rgba) {
+            Imgproc.cvtColor(mYuvFrameData, rgba, rgbaConversion(), 4);
+        }
+
+        @Override
+        public Mat yuv() {
+            return mYuvFrameData;
         }
 
         @Override
-        public Mat rgba() {
+        public int rgbaConversion() {
             if (mPreviewFormat == ImageFormat.NV21)
-                Imgproc.cvtColor(mYuvFrameData, mRgba, Imgproc.COLOR_YUV2RGBA_NV21, 4);
+                return Imgproc.COLOR_YUV2RGBA_NV21;
             else if (mPreviewFormat == ImageFormat.YV12)
-                Imgproc.cvtColor(mYuvFrameData, mRgba, Imgproc.COLOR_YUV2RGB_I420, 4);  // COLOR_YUV2RGBA_YV12 produces inverted colors
+                return Imgproc.COLOR_YUV2RGB_I420;  // COLOR_YUV2RGBA_YV12 produces inverted colors
             else
                 throw new IllegalArgumentException("Preview Format can be NV21 or YV12");
-
-            return mRgba;
         }
 
         public JavaCameraFrame(Mat Yuv420sp, int width, int height) {
@@ -333,15 +492,19 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
             mWidth = width;
             mHeight = height;
             mYuvFrameData = Yuv420sp;
-            mRgba = new Mat();
         }
 
+        @Override
         public void release() {
-            mRgba.release();
+            super.release();
+            if (mGray != null) {
+                mGray.release();
+                mGray = null;
+            }
         }
 
         private Mat mYuvFrameData;
-        private Mat mRgba;
+        private Mat mGray;
         private int mWidth;
         private int mHeight;
     };
@@ -350,27 +513,27 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
 
         @Override
         public void run() {
+            FrameRingBuffer buffer = mFrameBuffer;
             do {
-                boolean hasFrame = false;
-                synchronized (JavaCameraView.this) {
-                    try {
-                        while (!mCameraFrameReady && !mStopThread) {
-                            JavaCameraView.this.wait();
-                        }
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                    if (mCameraFrameReady)
-                    {
-                        mChainIdx = 1 - mChainIdx;
-                        mCameraFrameReady = false;
-                        hasFrame = true;
-                    }
+                int slot = -1;
+                try {
+                    slot = buffer.acquireRead();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
                 }
 
-                if (!mStopThread && hasFrame) {
-                    if (!mFrameChain[1 - mChainIdx].empty())
-                        deliverAndDrawFrame(mCameraFrame[1 - mChainIdx]);
+                if (slot >= 0) {
+                    if (mPooledBuffers) { // frames dropped by LATEST_WINS policy can be reused right away
+                        recycleCallbackBuffers(false);
+                        copyCallbackBuffer(slot);
+                    }
+                    if (!mStopThread && !mFrameChain[slot].empty()) {
+                        deliverAndDrawFrame(mCameraFrame[slot]);
+                        mCameraFrame[slot].recycle();
+                    }
+                    buffer.releaseRead(slot);
+                    if (mPooledBuffers)
+                        recycleCallbackBuffers(false);
                 }
             } while (!mStopThread);
             Log.d(TAG, "Finish processing thread");
@@ -0,0 +1,305 @@
+package org.opencv.android;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.imgproc.Imgproc;
+
+import android.annotation.TargetApi;
+import android.opengl.EGL14;
+import android.opengl.EGLConfig;
+import android.opengl.EGLContext;
+import android.opengl.EGLDisplay;
+import android.opengl.EGLSurface;
+import android.opengl.GLES20;
+import android.opengl.GLES30;
+import android.util.Log;
+import android.view.SurfaceHolder;
+
+/**
+ * This class draws Mats to the surface of CameraBridgeViewBase with OpenGL ES instead of
+ * Utils.matToBitmap() and Canvas. The frame is uploaded to a texture and scaled by the GPU.
+ * With OpenGL ES 3.0 the pixels are written to one of two pixel unpack buffers in turns, so the
+ * copy of the next frame doesn't wait for the texture upload of the previous one. On OpenGL ES 2.0
+ * the texture is updated from a direct buffer.
+ * The textures are sampled with GL_NEAREST, unscaled frames are displayed pixel exact.
+ * All the methods shall be called from one thread at a time, the EGL context is made current
+ * for each call only.
+ */
+@TargetApi(18)
+class MatGLDisplay {
+
+    private static final String TAG = "MatGLDisplay";
+
+    private static final float VERTICES[] = {
+           -1, -1,
+           -1,  1,
+            1, -1,
+            1,  1 };
+    // Mat rows go top to bottom
+    private static final float TEX_COORDS[] = {
+            0,  1,
+            0,  0,
+            1,  1,
+            1,  0 };
+
+    private final SurfaceHolder mHolder;
+    private EGLDisplay mEglDisplay = EGL14.EGL_NO_DISPLAY;
+    private EGLContext mEglContext = EGL14.EGL_NO_CONTEXT;
+    private EGLSurface mEglSurface = EGL14.EGL_NO_SURFACE;
+    private boolean mInitFailed;
+    private boolean mHasPbo;
+
+    private int mProgram;
+    private int mPositionLoc;
+    private int mTexCoordLoc;
+    private int mTextureLoc;
+    private final int[] mTexture = {0};
+    private final int[] mPbo = {0, 0};
+    private int mPboIdx;
+    private int mTexWidth;
+    private int mTexHeight;
+
+    private final FloatBuffer mVertices;
+    private final FloatBuffer mTexCoords;
+    private final int[] mSurfaceSize = new int[1];
+
+    private final Mat mRgba = new Mat();
+    private ByteBuffer mUploadBuffer;
+    private Mat mUploadMat;
+
+    MatGLDisplay(SurfaceHolder holder) {
+        mHolder = holder;
+        int bytes = VERTICES.length * Float.SIZE / Byte.SIZE;
+        mVertices = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        mTexCoords = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        mVertices.put(VERTICES).position(0);
+        mTexCoords.put(TEX_COORDS).position(0);
+    }
+
+    /**
+     * Draws the frame in the center of the surface
+     * @param frame - CV_8UC1, CV_8UC3 (RGB) or CV_8UC4 (RGBA) Mat
+     * @param scale - the scale of the frame or 0 to draw it unscaled
+     * @return false if the frame can't be drawn
+     */
+    boolean draw(Mat frame, float scale) {
+        if (!makeCurrent())
+            return false;
+        try {
+            Mat rgba = toRgba(frame);
+            if (rgba == null)
+                return false;
+            upload(rgba);
+            render(scale);
+            return EGL14.eglSwapBuffers(mEglDisplay, mEglSurface);
+        } finally {
+            EGL14.eglMakeCurrent(mEglDisplay, EGL14.EGL_NO_SURFACE, EGL14.EGL_NO_SURFACE, EGL14.EGL_NO_CONTEXT);
+        }
+    }
+
+    /**
+     * @return false if OpenGL ES can't be used with the surface
+     */
+    boolean isAvailable() {
+        return !mInitFailed;
+    }
+
+    /**
+     * Deletes GL objects and disconnects from the surface, so that it can be used with Canvas again
+     */
+    void release() {
+        if (mEglDisplay != EGL14.EGL_NO_DISPLAY) {
+            if (EGL14.eglMakeCurrent(mEglDisplay, mEglSurface, mEglSurface, mEglContext)) {
+                GLES20.glDeleteTextures(1, mTexture, 0);
+                if (mHasPbo)
+                    GLES20.glDeleteBuffers(2, mPbo, 0);
+                GLES20.glDeleteProgram(mProgram);
+            }
+            EGL14.eglMakeCurrent(mEglDisplay, EGL14.EGL_NO_SURFACE, EGL14.EGL_NO_SURFACE, EGL14.EGL_NO_CONTEXT);
+            EGL14.eglDestroySurface(mEglDisplay, mEglSurface);
+            EGL14.eglDestroyContext(mEglDisplay, mEglContext);
+            EGL14.eglReleaseThread();
+        }
+        mEglDisplay = EGL14.EGL_NO_DISPLAY;
+        mEglContext = EGL14.EGL_NO_CONTEXT;
+        mEglSurface = EGL14.EGL_NO_SURFACE;
+        mTexWidth = mTexHeight = 0;
+        mRgba.release();
+        if (mUploadMat != null) {
+            mUploadMat.release();
+            mUploadMat = null;
+        }
+        mUploadBuffer = null;
+    }
+
+    private boolean makeCurrent() {
+        if (mInitFailed)
+            return false;
+        if (mEglDisplay == EGL14.EGL_NO_DISPLAY && !init()) {
+            mInitFailed = true;
+            release();
+            return false;
+        }
+        return EGL14.eglMakeCurrent(mEglDisplay, mEglSurface, mEglSurface, mEglContext);
+    }
+
+    private boolean init() {
+        mEglDisplay = EGL14.eglGetDisplay(EGL14.EGL_DEFAULT_DISPLAY);
+        int[] version = new int[2];
+        if (mEglDisplay == EGL14.EGL_NO_DISPLAY || !EGL14.eglInitialize(mEglDisplay, version, 0, version, 1)) {
+            Log.e(TAG, "Unable to initialize EGL");
+            mEglDisplay = EGL14.EGL_NO_DISPLAY;
+            return false;
+        }
+
+        int[] configAttribs = {
+                EGL14.EGL_RED_SIZE, 8,
+                EGL14.EGL_GREEN_SIZE, 8,
+                EGL14.EGL_BLUE_SIZE, 8,
+                EGL14.EGL_RENDERABLE_TYPE, EGL14.EGL_OPENGL_ES2_BIT,
+                EGL14.EGL_NONE };
+        EGLConfig[] configs = new EGLConfig[1];
+        int[] configsCount = new int[1];
+        if (!EGL14.eglChooseConfig(mEglDisplay, configAttribs, 0, configs, 0, 1, configsCount, 0) || configsCount[0] == 0) {
+            Log.e(TAG, "No suitable EGL config");
+            return false;
+        }
+
+        // pixel unpack buffers are available starting with OpenGL ES 3.0
+        int[] contextAttribs = { EGL14.EGL_CONTEXT_CLIENT_VERSION, 3, EGL14.EGL_NONE };
+        mEglContext = EGL14.eglCreateContext(mEglDisplay, configs[0], EGL14.EGL_NO_CONTEXT, contextAttribs, 0);
+        mHasPbo = mEglContext != EGL14.EGL_NO_CONTEXT;
+        if (!mHasPbo) {
+            contextAttribs[1] = 2;
+            mEglContext = EGL14.eglCreateContext(mEglDisplay, configs[0], EGL14.EGL_NO_CONTEXT, contextAttribs, 0);
+        }
+        if (mEglContext == EGL14.EGL_NO_CONTEXT) {
+            Log.e(TAG, "Unable to create EGL context");
+            return false;
+        }
+
+        int[] surfaceAttribs = { EGL14.EGL_NONE };
+        mEglSurface = EGL14.eglCreateWindowSurface(mEglDisplay, configs[0], mHolder.getSurface(), surfaceAttribs, 0);
+        if (mEglSurface == EGL14.EGL_NO_SURFACE || !EGL14.eglMakeCurrent(mEglDisplay, mEglSurface, mEglSurface, mEglContext)) {
+            Log.e(TAG, "Unable to create EGL surface: " + EGL14.eglGetError());
+            return false;
+        }
+
+        mProgram = CameraGLRendererBase.loadShader(CameraGLRendererBase.vss, CameraGLRendererBase.fss2D);
+        if (mProgram == 0)
+            return false;
+        mPositionLoc = GLES20.glGetAttribLocation(mProgram, "vPosition");
+        mTexCoordLoc = GLES20.glGetAttribLocation(mProgram, "vTexCoord");
+        mTextureLoc = GLES20.glGetUniformLocation(mProgram, "sTexture");
+
+        GLES20.glGenTextures(1, mTexture, 0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mTexture[0]);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_NEAREST);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_NEAREST);
+        if (mHasPbo)
+            GLES20.glGenBuffers(2, mPbo, 0);
+
+        Log.i(TAG, "OpenGL ES display is initialized, pixel buffers: " + mHasPbo);
+        return true;
+    }
+
+    private Mat toRgba(Mat frame) {
+        int type = frame.type();
+        if (type == CvType.CV_8UC4) {
+            return frame;
+        } else if (type == CvType.CV_8UC3) {
+            Imgproc.cvtColor(frame, mRgba, Imgproc.COLOR_RGB2RGBA);
+            return mRgba;
+        } else if (type == CvType.CV_8UC1) {
+            Imgproc.cvtColor(frame, mRgba, Imgproc.COLOR_GRAY2RGBA);
+            return mRgba;
+        }
+        Log.e(TAG, "Mat type is not supported: " + frame);
+        return null;
+    }
+
+    private void upload(Mat rgba) {
+        int width = rgba.cols();
+        int height = rgba.rows();
+        int size = width * height * 4;
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mTexture[0]);
+        if (width != mTexWidth || height != mTexHeight) {
+            GLES20.glTexImage2D(GLES20.GL_TEXTURE_2D, 0, GLES20.GL_RGBA, width, height, 0, GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, null);
+            mTexWidth = width;
+            mTexHeight = height;
+            if (mUploadMat != null) {
+                mUploadMat.release();
+                mUploadMat = null;
+            }
+        }
+
+        if (mHasPbo) {
+            try {
+                uploadPbo(rgba, width, height, size);
+                return;
+            } catch (IllegalArgumentException e) {
+                // the bindings may reject the null pointer meaning offset 0 in the bound buffer
+                Log.w(TAG, "Texture upload from pixel buffer is not supported", e);
+                GLES20.glBindBuffer(GLES30.GL_PIXEL_UNPACK_BUFFER, 0);
+                GLES20.glDeleteBuffers(2, mPbo, 0);
+                mHasPbo = false;
+            }
+        }
+
+        if (mUploadMat == null) {
+            mUploadBuffer = ByteBuffer.allocateDirect(size);
+            mUploadMat = new Mat(height, width, CvType.CV_8UC4, mUploadBuffer);
+        }
+        rgba.copyTo(mUploadMat);
+        GLES20.glTexSubImage2D(GLES20.GL_TEXTURE_2D, 0, 0, 0, width, height, GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, mUploadBuffer);
+    }
+
+    private void uploadPbo(Mat rgba, int width, int height, int size) {
+        GLES20.glBindBuffer(GLES30.GL_PIXEL_UNPACK_BUFFER, mPbo[mPboIdx]);
+        // orphan the previous storage, the GPU may still be reading it
+        GLES20.glBufferData(GLES30.GL_PIXEL_UNPACK_BUFFER, size, null, GLES30.GL_STREAM_DRAW);
+        ByteBuffer mapped = (ByteBuffer) GLES30.glMapBufferRange(GLES30.GL_PIXEL_UNPACK_BUFFER, 0, size,
+                GLES30.GL_MAP_WRITE_BIT | GLES30.GL_MAP_INVALIDATE_BUFFER_BIT);
+        if (mapped != null) {
+            Mat pixels = new Mat(height, width, CvType.CV_8UC4, mapped);
+            rgba.copyTo(pixels);
+            pixels.release();
+        }
+        GLES30.glUnmapBuffer(GLES30.GL_PIXEL_UNPACK_BUFFER);
+        if (mapped != null) // null pixels stand for offset 0 in the bound unpack buffer
+            GLES20.glTexSubImage2D(GLES20.GL_TEXTURE_2D, 0, 0, 0, width, height, GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, null);
+        GLES20.glBindBuffer(GLES30.GL_PIXEL_UNPACK_BUFFER, 0);
+        mPboIdx = 1 - mPboIdx;
+    }
+
+    private void render(float scale) {
+        EGL14.eglQuerySurface(mEglDisplay, mEglSurface, EGL14.EGL_WIDTH, mSurfaceSize, 0);
+        int surfaceWidth = mSurfaceSize[0];
+        EGL14.eglQuerySurface(mEglDisplay, mEglSurface, EGL14.EGL_HEIGHT, mSurfaceSize, 0);
+        int surfaceHeight = mSurfaceSize[0];
+
+        int width = scale != 0 ? (int)(scale * mTexWidth) : mTexWidth;
+        int height = scale != 0 ? (int)(scale * mTexHeight) : mTexHeight;
+
+        GLES20.glViewport(0, 0, surfaceWidth, surfaceHeight);
+        GLES20.glClearColor(0, 0, 0, 0);
+        GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT);
+        GLES20.glViewport((surfaceWidth - width) / 2, (surfaceHeight - height) / 2, width, height);
+
+        GLES20.glUseProgram(mProgram);
+        GLES20.glEnableVertexAttribArray(mPositionLoc);
+        GLES20.glEnableVertexAttribArray(mTexCoordLoc);
+        GLES20.glVertexAttribPointer(mPositionLoc, 2, GLES20.GL_FLOAT, false, 4*2, mVertices);
+        GLES20.glVertexAttribPointer(mTexCoordLoc, 2, GLES20.GL_FLOAT, false, 4*2, mTexCoords);
+        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mTexture[0]);
+        GLES20.glUniform1i(mTextureLoc, 0);
+        GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
+    }
+}
@@ -0,0 +1,206 @@
+package org.opencv.android;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.Resources;
+import android.util.Log;
+
+/**
+ * This class loads images from the application raw resources and drawables.
+ * The encoded data is read straight into a direct buffer shared by all loads, the buffer is wrapped
+ * by a Mat and passed to imdecode without any intermediate Java array.
+ * Decoded images are kept in a LRU cache bounded by their size in bytes and keyed by the resource id
+ * and the decode flags. The cached Mats are handed out with reference counting: every acquire()
+ * call shall be paired with release(), an image is freed only when it is evicted and not referenced.
+ * Attention: the acquired Mats are shared and shall not be modified, clone them if needed.
+ */
+public class ResourceImageLoader {
+
+    private static final String TAG = "ResourceImageLoader";
+    private static final int MIN_BUFFER_SIZE = 64 * 1024;
+
+    private static ByteBuffer sBuffer;
+
+    private final long mMaxCacheBytes;
+    private final LinkedHashMap<Long, Entry> mCache = new LinkedHashMap<Long, Entry>(16, 0.75f, true);
+    private final Map<Mat, Entry> mAcquired = new IdentityHashMap<Mat, Entry>();
+    private long mCacheBytes;
+
+    private static class Entry {
+        final Mat image;
+        final long bytes;
+        int refs;
+        boolean cached = true;
+
+        Entry(Mat image) {
+            this.image = image;
+            this.bytes = image.total() * image.elemSize();
+        }
+    }
+
+    /**
+     * @param maxCacheBytes - the maximal size of the decoded images kept while unreferenced
+     */
+    public ResourceImageLoader(long maxCacheBytes) {
+        mMaxCacheBytes = maxCacheBytes;
+    }
+
+    /**
+     * Returns the decoded image, loading it on a cache miss. The image shall be returned with release().
+     * @param flags - Imgcodecs.imdecode() flags
+     */
+    public synchronized Mat acquire(Context context, int resourceId, int flags) throws IOException {
+        long key = ((long) resourceId << 32) | (flags & 0xffffffffL);
+        Entry entry = mCache.get(key);
+        if (entry == null) {
+            Mat image = decode(context, resourceId, flags);
+            if (image.empty()) {
+                image.release();
+                throw new IOException("Failed to decode resource " + resourceId);
+            }
+            entry = new Entry(image);
+            mCache.put(key, entry);
+            mCacheBytes += entry.bytes;
+        }
+        entry.refs++;
+        mAcquired.put(entry.image, entry);
+        trim();
+        return entry.image;
+    }
+
+    public synchronized void release(Mat image) {
+        Entry entry = mAcquired.get(image);
+        if (entry == null) {
+            Log.w(TAG, "Released image is not acquired from this loader");
+            return;
+        }
+        if (--entry.refs == 0) {
+            mAcquired.remove(image);
+            if (entry.cached)
+                trim();
+            else
+                entry.image.release();
+        }
+    }
+
+    /**
+     * Drops all the cached images, the referenced ones are freed on their last release()
+     */
+    public synchronized void clear() {
+        for (Entry entry : mCache.values()) {
+            entry.cached = false;
+            if (entry.refs == 0)
+                entry.image.release();
+        }
+        mCache.clear();
+        mCacheBytes = 0;
+    }
+
+    private void trim() {
+        Iterator<Entry> it = mCache.values().iterator();
+        while (mCacheBytes > mMaxCacheBytes && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.refs > 0)
+                continue;
+            it.remove();
+            entry.cached = false;
+            mCacheBytes -= entry.bytes;
+            entry.image.release();
+        }
+    }
+
+    /**
+     * Decodes the resource into a new Mat which is owned by the caller
+     * @param flags - Imgcodecs.imdecode() flags
+     */
+    public static synchronized Mat decode(Context context, int resourceId, int flags) throws IOException {
+        int length = read(context.getResources(), resourceId);
+        if (length == 0)
+            throw new IOException("Resource " + resourceId + " is empty");
+        Mat encoded = new Mat(1, length, CvType.CV_8U, sBuffer);
+        try {
+            return Imgcodecs.imdecode(encoded, flags);
+        } finally {
+            encoded.release();
+        }
+    }
+
+    /**
+     * Reads the resource into sBuffer and returns its length
+     */
+    private static int read(Resources resources, int resourceId) throws IOException {
+        AssetFileDescriptor afd = null;
+        try {
+            afd = resources.openRawResourceFd(resourceId);
+        } catch (Resources.NotFoundException e) {
+            /* the resource is compressed in the package, it is streamed below */
+        }
+        if (afd != null) {
+            FileInputStream is = null;
+            try {
+                long length = afd.getLength();
+                if (length > 0 && length <= Integer.MAX_VALUE) {
+                    ensureCapacity((int) length, false);
+                    sBuffer.limit((int) length);
+                    is = afd.createInputStream();
+                    FileChannel channel = is.getChannel();
+                    long start = afd.getStartOffset();
+                    while (sBuffer.hasRemaining()) {
+                        if (channel.read(sBuffer, start + sBuffer.position()) < 0)
+                            break;
+                    }
+                    return sBuffer.position();
+                }
+            } finally {
+                /* the stream shares the descriptor, both are closed for CloseGuard */
+                if (is != null)
+                    is.close();
+                afd.close();
+            }
+        }
+
+        InputStream is = resources.openRawResource(resourceId);
+        try {
+            ensureCapacity(is.available(), false);
+            sBuffer.clear();
+            ReadableByteChannel channel = Channels.newChannel(is);
+            while (channel.read(sBuffer) >= 0) {
+                if (!sBuffer.hasRemaining())
+                    ensureCapacity(sBuffer.capacity() * 2, true);
+            }
+            return sBuffer.position();
+        } finally {
+            is.close();
+        }
+    }
+
+    private static void ensureCapacity(int capacity, boolean keepContent) {
+        capacity = Math.max(capacity, MIN_BUFFER_SIZE);
+        if (sBuffer == null || sBuffer.capacity() < capacity) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(capacity);
+            if (keepContent && sBuffer != null) {
+                sBuffer.flip();
+                buffer.put(sBuffer);
+            }
+            sBuffer = buffer;
+        }
+        if (!keepContent)
+            sBuffer.clear();
+    }
+}
@@ -4,11 +4,9 @@ import android.content.Context;
 import android.graphics.Bitmap;
 
 import org.opencv.core.CvException;
-import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.imgcodecs.Imgcodecs;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -53,24 +51,7 @@ public class Utils {
 
     public static Mat loadResource(Context context, int resourceId, int flags) throws IOException
     {
-        InputStream is = context.getResources().openRawResource(resourceId);
-        ByteArrayOutputStream os = new ByteArrayOutputStream(is.available());
-
-        byte[] buffer = new byte[4096];
-        int bytesRead;
-        while ((bytesRead = is.read(buffer)) != -1) {
-            os.write(buffer, 0, bytesRead);
-        }
-        is.close();
-
-        Mat encoded = new Mat(1, os.size(), CvType.CV_8U);
-        encoded.put(0, 0, os.toByteArray());
-        os.close();
-
-        Mat decoded = Imgcodecs.imdecode(encoded, flags);
-        encoded.release();
-
-        return decoded;
+        return ResourceImageLoader.decode(context, resourceId, flags);
     }
 
     /**
@@ -5,6 +5,7 @@ package org.opencv.calib3d;
 
 import org.opencv.calib3d.StereoBM;
 import org.opencv.calib3d.StereoMatcher;
+import org.opencv.core.NativeCleaner;
 import org.opencv.core.Rect;
 
 // C++: class StereoBM
@@ -229,8 +230,8 @@ public class StereoBM extends StereoMatcher {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -288,7 +289,14 @@ public class StereoBM extends StereoMatcher {
     // C++:  void cv::StereoBM::setUniquenessRatio(int uniquenessRatio)
     private static native void setUniquenessRatio_0(long nativeObj, int uniquenessRatio);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            StereoBM.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -5,6 +5,7 @@ package org.opencv.calib3d;
 
 import org.opencv.core.Algorithm;
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 
 // C++: class StereoMatcher
 /**
@@ -150,8 +151,8 @@ public class StereoMatcher extends Algorithm {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -195,7 +196,14 @@ public class StereoMatcher extends Algorithm {
     // C++:  void cv::StereoMatcher::setSpeckleWindowSize(int speckleWindowSize)
     private static native void setSpeckleWindowSize_0(long nativeObj, int speckleWindowSize);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            StereoMatcher.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -5,6 +5,7 @@ package org.opencv.calib3d;
 
 import org.opencv.calib3d.StereoMatcher;
 import org.opencv.calib3d.StereoSGBM;
+import org.opencv.core.NativeCleaner;
 
 // C++: class StereoSGBM
 /**
@@ -601,8 +602,8 @@ public class StereoSGBM extends StereoMatcher {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -651,7 +652,14 @@ public class StereoSGBM extends StereoMatcher {
     // C++:  void cv::StereoSGBM::setUniquenessRatio(int uniquenessRatio)
     private static native void setUniquenessRatio_0(long nativeObj, int uniquenessRatio);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            StereoSGBM.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -18,10 +18,15 @@ package org.opencv.core;
  * Here is example of SimpleBlobDetector use in your application via Algorithm interface:
  * SNIPPET: snippets/core_various.cpp Algorithm
  */
-public class Algorithm {
+public class Algorithm implements AutoCloseable {
 
     protected final long nativeObj;
-    protected Algorithm(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected Algorithm(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -95,9 +100,21 @@ public class Algorithm {
     // Unknown type 'Ptr_FileStorage' (I), skipping the function
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -114,7 +131,14 @@ public class Algorithm {
     // C++:  void cv::Algorithm::save(String filename)
     private static native void save_0(long nativeObj, String filename);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            Algorithm.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -0,0 +1,176 @@
+package org.opencv.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Struct-of-arrays view of a MatOfDMatch. The matches are transferred with one bulk get()
+ * or put() and stored in public primitive columns, so no DMatch objects are created.
+ * The columns are valid up to size(), they are reused by the next read().
+ */
+public class DMatchColumns extends FeatureColumns {
+    // 32FC4
+    private static final int _channels = 4;
+
+    public int[] queryIdx;
+    public int[] trainIdx;
+    public int[] imgIdx;
+    public float[] distance;
+
+    private float[] mPacked;
+    private final float[] mKnn = new float[2 * _channels];
+
+    public DMatchColumns() {
+        this(64);
+    }
+
+    public DMatchColumns(int capacity) {
+        queryIdx = new int[capacity];
+        trainIdx = new int[capacity];
+        imgIdx = new int[capacity];
+        distance = new float[capacity];
+        mPacked = new float[capacity * _channels];
+    }
+
+    /**
+     * Replaces the content with the matches of the Mat
+     */
+    public void read(MatOfDMatch m) {
+        int num = (int) m.total();
+        mCount = 0;
+        if (num == 0)
+            return;
+        ensureCapacity(num);
+        m.get(0, 0, mPacked);
+        float[] buff = mPacked;
+        for (int i = 0; i < num; i++) {
+            int k = _channels * i;
+            queryIdx[i] = (int) buff[k];
+            trainIdx[i] = (int) buff[k + 1];
+            imgIdx[i] = (int) buff[k + 2];
+            distance[i] = buff[k + 3];
+        }
+        mCount = num;
+    }
+
+    /**
+     * Replaces the content with the best match of every query passing Lowe's ratio test,
+     * i.e. whose distance is less than ratio times the distance of the second best match.
+     * Queries with less than two matches are dropped.
+     * @param knnMatches - the result of DescriptorMatcher.knnMatch() with k >= 2
+     * @return the number of kept matches
+     */
+    public int readRatioTest(List<MatOfDMatch> knnMatches, float ratio) {
+        mCount = 0;
+        ensureCapacity(knnMatches.size());
+        float[] buff = mKnn;
+        for (int i = 0; i < knnMatches.size(); i++) {
+            MatOfDMatch m = knnMatches.get(i);
+            if (m.total() < 2)
+                continue;
+            /* only the two best matches are copied, get() stops at the end of the array */
+            m.get(0, 0, buff);
+            if (buff[3] < ratio * buff[_channels + 3]) {
+                int k = mCount++;
+                queryIdx[k] = (int) buff[0];
+                trainIdx[k] = (int) buff[1];
+                imgIdx[k] = (int) buff[2];
+                distance[k] = buff[3];
+            }
+        }
+        return mCount;
+    }
+
+    /**
+     * Stores the matches into the Mat, it is reallocated if its size differs
+     */
+    public void write(MatOfDMatch m) {
+        if (mCount == 0) {
+            m.release();
+            return;
+        }
+        float[] buff = mPacked;
+        for (int i = 0; i < mCount; i++) {
+            int k = _channels * i;
+            buff[k] = queryIdx[i];
+            buff[k + 1] = trainIdx[i];
+            buff[k + 2] = imgIdx[i];
+            buff[k + 3] = distance[i];
+        }
+        m.alloc(mCount);
+        m.put(0, 0, buff);
+    }
+
+    public void add(int pqueryIdx, int ptrainIdx, int pimgIdx, float pdistance) {
+        ensureCapacity(mCount + 1);
+        int i = mCount++;
+        queryIdx[i] = pqueryIdx;
+        trainIdx[i] = ptrainIdx;
+        imgIdx[i] = pimgIdx;
+        distance[i] = pdistance;
+    }
+
+    /**
+     * Sorts the matches by increasing distance
+     */
+    public void sortByDistance() {
+        sort(distance, false);
+    }
+
+    /**
+     * Keeps the count matches with the smallest distance, in any order
+     */
+    public void retainBest(int count) {
+        select(distance, count, false);
+    }
+
+    /**
+     * Keeps the matches whose distance is less than maxDistance
+     */
+    public int retainDistanceBelow(float maxDistance) {
+        int kept = 0;
+        for (int i = 0; i < mCount; i++) {
+            if (distance[i] < maxDistance) {
+                if (kept != i)
+                    move(i, kept);
+                kept++;
+            }
+        }
+        mCount = kept;
+        return kept;
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity <= distance.length)
+            return;
+        int n = grow(distance.length, capacity);
+        queryIdx = Arrays.copyOf(queryIdx, n);
+        trainIdx = Arrays.copyOf(trainIdx, n);
+        imgIdx = Arrays.copyOf(imgIdx, n);
+        distance = Arrays.copyOf(distance, n);
+        mPacked = new float[n * _channels];
+    }
+
+    @Override
+    protected void swap(int i, int j) {
+        int t;
+        t = queryIdx[i]; queryIdx[i] = queryIdx[j]; queryIdx[j] = t;
+        t = trainIdx[i]; trainIdx[i] = trainIdx[j]; trainIdx[j] = t;
+        t = imgIdx[i]; imgIdx[i] = imgIdx[j]; imgIdx[j] = t;
+        float f = distance[i]; distance[i] = distance[j]; distance[j] = f;
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        queryIdx[to] = queryIdx[from];
+        trainIdx[to] = trainIdx[from];
+        imgIdx[to] = imgIdx[from];
+        distance[to] = distance[from];
+    }
+
+    @Override
+    public String toString() {
+        return "DMatchColumns [ size=" + mCount + ", capacity=" + distance.length + " ]";
+    }
+}
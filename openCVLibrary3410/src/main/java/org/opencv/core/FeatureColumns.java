@@ -0,0 +1,159 @@
+package org.opencv.core;
+
+/**
+ * This is the base class of the struct-of-arrays feature containers, see KeyPointColumns and
+ * DMatchColumns. The elements are stored in primitive column arrays which are reused between
+ * reads, they can grow but never shrink. Sorting, filtering and truncation are done in place
+ * and create no objects.
+ */
+public abstract class FeatureColumns {
+
+    protected int mCount;
+
+    public interface Filter {
+        /**
+         * Returns true if the element at the index shall be kept. The element is still at its
+         * original position when it is tested, the elements before it may be already moved.
+         */
+        public boolean accept(int index);
+    }
+
+    /**
+     * Returns the number of valid elements, the column arrays may be longer
+     */
+    public int size() {
+        return mCount;
+    }
+
+    public boolean empty() {
+        return mCount == 0;
+    }
+
+    /**
+     * Removes all the elements, the column arrays are kept for the next read
+     */
+    public void clear() {
+        mCount = 0;
+    }
+
+    /**
+     * Keeps the first count elements
+     */
+    public void truncate(int count) {
+        if (count < 0)
+            throw new IllegalArgumentException("Negative count: " + count);
+        if (count < mCount)
+            mCount = count;
+    }
+
+    /**
+     * Keeps the elements accepted by the filter, preserving their order
+     * @return the new size
+     */
+    public int retain(Filter filter) {
+        int kept = 0;
+        for (int i = 0; i < mCount; i++) {
+            if (filter.accept(i)) {
+                if (kept != i)
+                    move(i, kept);
+                kept++;
+            }
+        }
+        mCount = kept;
+        return kept;
+    }
+
+    /**
+     * Reserves room for the given number of elements, the existing ones are kept
+     */
+    public abstract void ensureCapacity(int capacity);
+
+    /**
+     * Swaps two elements in all the columns
+     */
+    protected abstract void swap(int i, int j);
+
+    /**
+     * Copies the element from one index to another in all the columns
+     */
+    protected abstract void move(int from, int to);
+
+    /**
+     * Sorts the elements by the key column in place, the sort is not stable
+     */
+    protected void sort(float[] key, boolean descending) {
+        sort(key, 0, mCount - 1, descending);
+    }
+
+    /**
+     * Moves the best count elements by the key column to the front in any order and drops the rest,
+     * this takes linear time on average
+     */
+    protected void select(float[] key, int count, boolean descending) {
+        if (count >= mCount)
+            return;
+        int lo = 0;
+        int hi = mCount - 1;
+        while (lo < hi) {
+            int p = partition(key, lo, hi, descending);
+            if (p == count)
+                break;
+            if (p < count)
+                lo = p + 1;
+            else
+                hi = p - 1;
+        }
+        mCount = count;
+    }
+
+    private void sort(float[] key, int lo, int hi, boolean descending) {
+        while (hi - lo > 16) {
+            int p = partition(key, lo, hi, descending);
+            /* recurse into the smaller part to bound the stack depth */
+            if (p - lo < hi - p) {
+                sort(key, lo, p - 1, descending);
+                lo = p + 1;
+            } else {
+                sort(key, p + 1, hi, descending);
+                hi = p - 1;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && before(key[j], key[j - 1], descending); j--)
+                swap(j, j - 1);
+        }
+    }
+
+    /**
+     * Partitions the range around the median of three and returns the final pivot position
+     */
+    private int partition(float[] key, int lo, int hi, boolean descending) {
+        int mid = (lo + hi) >>> 1;
+        if (before(key[mid], key[lo], descending))
+            swap(mid, lo);
+        if (before(key[hi], key[lo], descending))
+            swap(hi, lo);
+        if (before(key[hi], key[mid], descending))
+            swap(hi, mid);
+        swap(mid, hi);
+        float pivot = key[hi];
+        int store = lo;
+        for (int i = lo; i < hi; i++) {
+            if (before(key[i], pivot, descending)) {
+                if (i != store)
+                    swap(i, store);
+                store++;
+            }
+        }
+        swap(store, hi);
+        return store;
+    }
+
+    private static boolean before(float a, float b, boolean descending) {
+        return descending ? a > b : a < b;
+    }
+
+    protected static int grow(int length, int capacity) {
+        return Math.max(capacity, length + (length >> 1));
+    }
+}
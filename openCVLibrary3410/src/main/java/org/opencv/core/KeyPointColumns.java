@@ -0,0 +1,187 @@
+package org.opencv.core;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays view of a MatOfKeyPoint. The keypoints are transferred with one bulk get()
+ * or put() and stored in public primitive columns, so no KeyPoint or Point objects are created.
+ * The columns are valid up to size(), they are reused by the next read().
+ */
+public class KeyPointColumns extends FeatureColumns {
+    // 32FC7
+    private static final int _channels = 7;
+
+    public float[] x;
+    public float[] y;
+    public float[] size;
+    public float[] angle;
+    public float[] response;
+    public int[] octave;
+    public int[] classId;
+
+    private float[] mPacked;
+
+    public KeyPointColumns() {
+        this(64);
+    }
+
+    public KeyPointColumns(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        size = new float[capacity];
+        angle = new float[capacity];
+        response = new float[capacity];
+        octave = new int[capacity];
+        classId = new int[capacity];
+        mPacked = new float[capacity * _channels];
+    }
+
+    /**
+     * Replaces the content with the keypoints of the Mat
+     */
+    public void read(MatOfKeyPoint m) {
+        int num = (int) m.total();
+        mCount = 0;
+        if (num == 0)
+            return;
+        ensureCapacity(num);
+        m.get(0, 0, mPacked);
+        float[] buff = mPacked;
+        for (int i = 0; i < num; i++) {
+            int k = _channels * i;
+            x[i] = buff[k];
+            y[i] = buff[k + 1];
+            size[i] = buff[k + 2];
+            angle[i] = buff[k + 3];
+            response[i] = buff[k + 4];
+            octave[i] = (int) buff[k + 5];
+            classId[i] = (int) buff[k + 6];
+        }
+        mCount = num;
+    }
+
+    /**
+     * Stores the keypoints into the Mat, it is reallocated if its size differs
+     */
+    public void write(MatOfKeyPoint m) {
+        if (mCount == 0) {
+            m.release();
+            return;
+        }
+        float[] buff = mPacked;
+        for (int i = 0; i < mCount; i++) {
+            int k = _channels * i;
+            buff[k] = x[i];
+            buff[k + 1] = y[i];
+            buff[k + 2] = size[i];
+            buff[k + 3] = angle[i];
+            buff[k + 4] = response[i];
+            buff[k + 5] = octave[i];
+            buff[k + 6] = classId[i];
+        }
+        m.alloc(mCount);
+        m.put(0, 0, buff);
+    }
+
+    public void add(float px, float py, float psize, float pangle, float presponse, int poctave, int pclassId) {
+        ensureCapacity(mCount + 1);
+        int i = mCount++;
+        x[i] = px;
+        y[i] = py;
+        size[i] = psize;
+        angle[i] = pangle;
+        response[i] = presponse;
+        octave[i] = poctave;
+        classId[i] = pclassId;
+    }
+
+    /**
+     * Sorts the keypoints by decreasing response
+     */
+    public void sortByResponse() {
+        sort(response, true);
+    }
+
+    /**
+     * Keeps the count keypoints with the largest response, in any order
+     */
+    public void retainBest(int count) {
+        select(response, count, true);
+    }
+
+    /**
+     * Keeps the keypoints whose center lies inside the rectangle
+     */
+    public int retainInside(Rect r) {
+        int kept = 0;
+        for (int i = 0; i < mCount; i++) {
+            if (x[i] >= r.x && x[i] < r.x + r.width && y[i] >= r.y && y[i] < r.y + r.height) {
+                if (kept != i)
+                    move(i, kept);
+                kept++;
+            }
+        }
+        mCount = kept;
+        return kept;
+    }
+
+    /**
+     * Keeps the keypoints whose size is within [minSize, maxSize]
+     */
+    public int retainSize(float minSize, float maxSize) {
+        int kept = 0;
+        for (int i = 0; i < mCount; i++) {
+            if (size[i] >= minSize && size[i] <= maxSize) {
+                if (kept != i)
+                    move(i, kept);
+                kept++;
+            }
+        }
+        mCount = kept;
+        return kept;
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity <= x.length)
+            return;
+        int n = grow(x.length, capacity);
+        x = Arrays.copyOf(x, n);
+        y = Arrays.copyOf(y, n);
+        size = Arrays.copyOf(size, n);
+        angle = Arrays.copyOf(angle, n);
+        response = Arrays.copyOf(response, n);
+        octave = Arrays.copyOf(octave, n);
+        classId = Arrays.copyOf(classId, n);
+        mPacked = new float[n * _channels];
+    }
+
+    @Override
+    protected void swap(int i, int j) {
+        float f;
+        int t;
+        f = x[i]; x[i] = x[j]; x[j] = f;
+        f = y[i]; y[i] = y[j]; y[j] = f;
+        f = size[i]; size[i] = size[j]; size[j] = f;
+        f = angle[i]; angle[i] = angle[j]; angle[j] = f;
+        f = response[i]; response[i] = response[j]; response[j] = f;
+        t = octave[i]; octave[i] = octave[j]; octave[j] = t;
+        t = classId[i]; classId[i] = classId[j]; classId[j] = t;
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        size[to] = size[from];
+        angle[to] = angle[from];
+        response[to] = response[from];
+        octave[to] = octave[from];
+        classId[to] = classId[from];
+    }
+
+    @Override
+    public String toString() {
+        return "KeyPointColumns [ size=" + mCount + ", capacity=" + x.length + " ]";
+    }
+}
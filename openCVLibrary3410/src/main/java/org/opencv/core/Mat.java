@@ -4,14 +4,21 @@ import java.nio.ByteBuffer;
 
 // C++: class Mat
 //javadoc: Mat
-public class Mat {
+public class Mat implements AutoCloseable {
 
     public final long nativeObj;
 
+    /* set by MatCleaner.register(), identifies this Mat when the native address is reused */
+    MatCleaner.MatReference mCleanerRef;
+    volatile boolean mClosed;
+    /* the MatPool this Mat is acquired from, null when it is not lent out */
+    MatPool mPool;
+
     public Mat(long addr) {
         if (addr == 0)
             throw new UnsupportedOperationException("Native object address is NULL");
         nativeObj = addr;
+        MatCleaner.register(this);
     }
 
     //
@@ -21,6 +28,7 @@ public class Mat {
     // javadoc: Mat::Mat()
     public Mat() {
         nativeObj = n_Mat();
+        MatCleaner.register(this);
     }
 
     //
@@ -30,6 +38,7 @@ public class Mat {
     // javadoc: Mat::Mat(rows, cols, type)
     public Mat(int rows, int cols, int type) {
         nativeObj = n_Mat(rows, cols, type);
+        MatCleaner.register(this);
     }
 
     //
@@ -39,6 +48,7 @@ public class Mat {
     // javadoc: Mat::Mat(rows, cols, type, data)
     public Mat(int rows, int cols, int type, ByteBuffer data) {
         nativeObj = n_Mat(rows, cols, type, data);
+        MatCleaner.register(this);
     }
 
     //
@@ -48,6 +58,7 @@ public class Mat {
     // javadoc: Mat::Mat(rows, cols, type, data, step)
     public Mat(int rows, int cols, int type, ByteBuffer data, long step) {
         nativeObj = n_Mat(rows, cols, type, data, step);
+        MatCleaner.register(this);
     }
 
     //
@@ -57,6 +68,7 @@ public class Mat {
     // javadoc: Mat::Mat(size, type)
     public Mat(Size size, int type) {
         nativeObj = n_Mat(size.width, size.height, type);
+        MatCleaner.register(this);
     }
 
     //
@@ -66,6 +78,7 @@ public class Mat {
     // javadoc: Mat::Mat(sizes, type)
     public Mat(int[] sizes, int type) {
         nativeObj = n_Mat(sizes.length, sizes, type);
+        MatCleaner.register(this);
     }
 
     //
@@ -75,6 +88,7 @@ public class Mat {
     // javadoc: Mat::Mat(rows, cols, type, s)
     public Mat(int rows, int cols, int type, Scalar s) {
         nativeObj = n_Mat(rows, cols, type, s.val[0], s.val[1], s.val[2], s.val[3]);
+        MatCleaner.register(this);
     }
 
     //
@@ -84,6 +98,7 @@ public class Mat {
     // javadoc: Mat::Mat(size, type, s)
     public Mat(Size size, int type, Scalar s) {
         nativeObj = n_Mat(size.width, size.height, type, s.val[0], s.val[1], s.val[2], s.val[3]);
+        MatCleaner.register(this);
     }
 
     //
@@ -93,6 +108,7 @@ public class Mat {
     // javadoc: Mat::Mat(sizes, type, s)
     public Mat(int[] sizes, int type, Scalar s) {
         nativeObj = n_Mat(sizes.length, sizes, type, s.val[0], s.val[1], s.val[2], s.val[3]);
+        MatCleaner.register(this);
     }
 
     //
@@ -102,11 +118,13 @@ public class Mat {
     // javadoc: Mat::Mat(m, rowRange, colRange)
     public Mat(Mat m, Range rowRange, Range colRange) {
         nativeObj = n_Mat(m.nativeObj, rowRange.start, rowRange.end, colRange.start, colRange.end);
+        MatCleaner.register(this);
     }
 
     // javadoc: Mat::Mat(m, rowRange)
     public Mat(Mat m, Range rowRange) {
         nativeObj = n_Mat(m.nativeObj, rowRange.start, rowRange.end);
+        MatCleaner.register(this);
     }
 
     //
@@ -116,6 +134,7 @@ public class Mat {
     // javadoc: Mat::Mat(m, ranges)
     public Mat(Mat m, Range[] ranges) {
         nativeObj = n_Mat(m.nativeObj, ranges);
+        MatCleaner.register(this);
     }
 
     //
@@ -125,6 +144,7 @@ public class Mat {
     // javadoc: Mat::Mat(m, roi)
     public Mat(Mat m, Rect roi) {
         nativeObj = n_Mat(m.nativeObj, roi.y, roi.y + roi.height, roi.x, roi.x + roi.width);
+        MatCleaner.register(this);
     }
 
     //
@@ -133,7 +153,7 @@ public class Mat {
 
     // javadoc: Mat::adjustROI(dtop, dbottom, dleft, dright)
     public Mat adjustROI(int dtop, int dbottom, int dleft, int dright) {
-        return new Mat(n_adjustROI(nativeObj, dtop, dbottom, dleft, dright));
+        return new Mat(n_adjustROI(addr(), dtop, dbottom, dleft, dright));
     }
 
     //
@@ -142,12 +162,12 @@ public class Mat {
 
     // javadoc: Mat::assignTo(m, type)
     public void assignTo(Mat m, int type) {
-        n_assignTo(nativeObj, m.nativeObj, type);
+        n_assignTo(addr(), m.nativeObj, type);
     }
 
     // javadoc: Mat::assignTo(m)
     public void assignTo(Mat m) {
-        n_assignTo(nativeObj, m.nativeObj);
+        n_assignTo(addr(), m.nativeObj);
     }
 
     //
@@ -156,7 +176,7 @@ public class Mat {
 
     // javadoc: Mat::channels()
     public int channels() {
-        return n_channels(nativeObj);
+        return n_channels(addr());
     }
 
     //
@@ -166,17 +186,17 @@ public class Mat {
 
     // javadoc: Mat::checkVector(elemChannels, depth, requireContinuous)
     public int checkVector(int elemChannels, int depth, boolean requireContinuous) {
-        return n_checkVector(nativeObj, elemChannels, depth, requireContinuous);
+        return n_checkVector(addr(), elemChannels, depth, requireContinuous);
     }
 
     // javadoc: Mat::checkVector(elemChannels, depth)
     public int checkVector(int elemChannels, int depth) {
-        return n_checkVector(nativeObj, elemChannels, depth);
+        return n_checkVector(addr(), elemChannels, depth);
     }
 
     // javadoc: Mat::checkVector(elemChannels)
     public int checkVector(int elemChannels) {
-        return n_checkVector(nativeObj, elemChannels);
+        return n_checkVector(addr(), elemChannels);
     }
 
     //
@@ -185,7 +205,7 @@ public class Mat {
 
     // javadoc: Mat::clone()
     public Mat clone() {
-        return new Mat(n_clone(nativeObj));
+        return new Mat(n_clone(addr()));
     }
 
     //
@@ -194,7 +214,7 @@ public class Mat {
 
     // javadoc: Mat::col(x)
     public Mat col(int x) {
-        return new Mat(n_col(nativeObj, x));
+        return new Mat(n_col(addr(), x));
     }
 
     //
@@ -203,7 +223,7 @@ public class Mat {
 
     // javadoc: Mat::colRange(startcol, endcol)
     public Mat colRange(int startcol, int endcol) {
-        return new Mat(n_colRange(nativeObj, startcol, endcol));
+        return new Mat(n_colRange(addr(), startcol, endcol));
     }
 
     //
@@ -212,7 +232,7 @@ public class Mat {
 
     // javadoc: Mat::colRange(r)
     public Mat colRange(Range r) {
-        return new Mat(n_colRange(nativeObj, r.start, r.end));
+        return new Mat(n_colRange(addr(), r.start, r.end));
     }
 
     //
@@ -221,7 +241,7 @@ public class Mat {
 
     // javadoc: Mat::dims()
     public int dims() {
-        return n_dims(nativeObj);
+        return n_dims(addr());
     }
 
     //
@@ -230,7 +250,7 @@ public class Mat {
 
     // javadoc: Mat::cols()
     public int cols() {
-        return n_cols(nativeObj);
+        return n_cols(addr());
     }
 
     //
@@ -240,17 +260,17 @@ public class Mat {
 
     // javadoc: Mat::convertTo(m, rtype, alpha, beta)
     public void convertTo(Mat m, int rtype, double alpha, double beta) {
-        n_convertTo(nativeObj, m.nativeObj, rtype, alpha, beta);
+        n_convertTo(addr(), m.nativeObj, rtype, alpha, beta);
     }
 
     // javadoc: Mat::convertTo(m, rtype, alpha)
     public void convertTo(Mat m, int rtype, double alpha) {
-        n_convertTo(nativeObj, m.nativeObj, rtype, alpha);
+        n_convertTo(addr(), m.nativeObj, rtype, alpha);
     }
 
     // javadoc: Mat::convertTo(m, rtype)
     public void convertTo(Mat m, int rtype) {
-        n_convertTo(nativeObj, m.nativeObj, rtype);
+        n_convertTo(addr(), m.nativeObj, rtype);
     }
 
     //
@@ -259,7 +279,7 @@ public class Mat {
 
     // javadoc: Mat::copyTo(m)
     public void copyTo(Mat m) {
-        n_copyTo(nativeObj, m.nativeObj);
+        n_copyTo(addr(), m.nativeObj);
     }
 
     //
@@ -268,7 +288,7 @@ public class Mat {
 
     // javadoc: Mat::copyTo(m, mask)
     public void copyTo(Mat m, Mat mask) {
-        n_copyTo(nativeObj, m.nativeObj, mask.nativeObj);
+        n_copyTo(addr(), m.nativeObj, mask.nativeObj);
     }
 
     //
@@ -277,7 +297,7 @@ public class Mat {
 
     // javadoc: Mat::create(rows, cols, type)
     public void create(int rows, int cols, int type) {
-        n_create(nativeObj, rows, cols, type);
+        n_create(addr(), rows, cols, type);
     }
 
     //
@@ -286,7 +306,7 @@ public class Mat {
 
     // javadoc: Mat::create(size, type)
     public void create(Size size, int type) {
-        n_create(nativeObj, size.width, size.height, type);
+        n_create(addr(), size.width, size.height, type);
     }
 
     //
@@ -295,7 +315,7 @@ public class Mat {
 
     // javadoc: Mat::create(sizes, type)
     public void create(int[] sizes, int type) {
-        n_create(nativeObj, sizes.length, sizes, type);
+        n_create(addr(), sizes.length, sizes, type);
     }
 
     //
@@ -304,7 +324,7 @@ public class Mat {
 
     // javadoc: Mat::copySize(m)
     public void copySize(Mat m) {
-        n_copySize(nativeObj, m.nativeObj);
+        n_copySize(addr(), m.nativeObj);
     }
 
     //
@@ -313,7 +333,7 @@ public class Mat {
 
     // javadoc: Mat::cross(m)
     public Mat cross(Mat m) {
-        return new Mat(n_cross(nativeObj, m.nativeObj));
+        return new Mat(n_cross(addr(), m.nativeObj));
     }
 
     //
@@ -322,7 +342,7 @@ public class Mat {
 
     // javadoc: Mat::dataAddr()
     public long dataAddr() {
-        return n_dataAddr(nativeObj);
+        return n_dataAddr(addr());
     }
 
     //
@@ -331,7 +351,7 @@ public class Mat {
 
     // javadoc: Mat::depth()
     public int depth() {
-        return n_depth(nativeObj);
+        return n_depth(addr());
     }
 
     //
@@ -340,12 +360,12 @@ public class Mat {
 
     // javadoc: Mat::diag(d)
     public Mat diag(int d) {
-        return new Mat(n_diag(nativeObj, d));
+        return new Mat(n_diag(addr(), d));
     }
 
     // javadoc: Mat::diag()
     public Mat diag() {
-        return new Mat(n_diag(nativeObj, 0));
+        return new Mat(n_diag(addr(), 0));
     }
 
     //
@@ -363,7 +383,7 @@ public class Mat {
 
     // javadoc: Mat::dot(m)
     public double dot(Mat m) {
-        return n_dot(nativeObj, m.nativeObj);
+        return n_dot(addr(), m.nativeObj);
     }
 
     //
@@ -372,7 +392,7 @@ public class Mat {
 
     // javadoc: Mat::elemSize()
     public long elemSize() {
-        return n_elemSize(nativeObj);
+        return n_elemSize(addr());
     }
 
     //
@@ -381,7 +401,7 @@ public class Mat {
 
     // javadoc: Mat::elemSize1()
     public long elemSize1() {
-        return n_elemSize1(nativeObj);
+        return n_elemSize1(addr());
     }
 
     //
@@ -390,7 +410,7 @@ public class Mat {
 
     // javadoc: Mat::empty()
     public boolean empty() {
-        return n_empty(nativeObj);
+        return n_empty(addr());
     }
 
     //
@@ -417,12 +437,12 @@ public class Mat {
 
     // javadoc: Mat::inv(method)
     public Mat inv(int method) {
-        return new Mat(n_inv(nativeObj, method));
+        return new Mat(n_inv(addr(), method));
     }
 
     // javadoc: Mat::inv()
     public Mat inv() {
-        return new Mat(n_inv(nativeObj));
+        return new Mat(n_inv(addr()));
     }
 
     //
@@ -431,7 +451,7 @@ public class Mat {
 
     // javadoc: Mat::isContinuous()
     public boolean isContinuous() {
-        return n_isContinuous(nativeObj);
+        return n_isContinuous(addr());
     }
 
     //
@@ -440,7 +460,7 @@ public class Mat {
 
     // javadoc: Mat::isSubmatrix()
     public boolean isSubmatrix() {
-        return n_isSubmatrix(nativeObj);
+        return n_isSubmatrix(addr());
     }
 
     //
@@ -451,7 +471,7 @@ public class Mat {
     public void locateROI(Size wholeSize, Point ofs) {
         double[] wholeSize_out = new double[2];
         double[] ofs_out = new double[2];
-        locateROI_0(nativeObj, wholeSize_out, ofs_out);
+        locateROI_0(addr(), wholeSize_out, ofs_out);
         if (wholeSize != null) {
             wholeSize.width = wholeSize_out[0];
             wholeSize.height = wholeSize_out[1];
@@ -468,12 +488,12 @@ public class Mat {
 
     // javadoc: Mat::mul(m, scale)
     public Mat mul(Mat m, double scale) {
-        return new Mat(n_mul(nativeObj, m.nativeObj, scale));
+        return new Mat(n_mul(addr(), m.nativeObj, scale));
     }
 
     // javadoc: Mat::mul(m)
     public Mat mul(Mat m) {
-        return new Mat(n_mul(nativeObj, m.nativeObj));
+        return new Mat(n_mul(addr(), m.nativeObj));
     }
 
     //
@@ -509,7 +529,7 @@ public class Mat {
 
     // javadoc: Mat::push_back(m)
     public void push_back(Mat m) {
-        n_push_back(nativeObj, m.nativeObj);
+        n_push_back(addr(), m.nativeObj);
     }
 
     //
@@ -518,7 +538,7 @@ public class Mat {
 
     // javadoc: Mat::release()
     public void release() {
-        n_release(nativeObj);
+        n_release(addr());
     }
 
     //
@@ -527,12 +547,12 @@ public class Mat {
 
     // javadoc: Mat::reshape(cn, rows)
     public Mat reshape(int cn, int rows) {
-        return new Mat(n_reshape(nativeObj, cn, rows));
+        return new Mat(n_reshape(addr(), cn, rows));
     }
 
     // javadoc: Mat::reshape(cn)
     public Mat reshape(int cn) {
-        return new Mat(n_reshape(nativeObj, cn));
+        return new Mat(n_reshape(addr(), cn));
     }
 
     //
@@ -541,7 +561,7 @@ public class Mat {
 
     // javadoc: Mat::reshape(cn, newshape)
     public Mat reshape(int cn, int[] newshape) {
-        return new Mat(n_reshape_1(nativeObj, cn, newshape.length, newshape));
+        return new Mat(n_reshape_1(addr(), cn, newshape.length, newshape));
     }
 
     //
@@ -550,7 +570,7 @@ public class Mat {
 
     // javadoc: Mat::row(y)
     public Mat row(int y) {
-        return new Mat(n_row(nativeObj, y));
+        return new Mat(n_row(addr(), y));
     }
 
     //
@@ -559,7 +579,7 @@ public class Mat {
 
     // javadoc: Mat::rowRange(startrow, endrow)
     public Mat rowRange(int startrow, int endrow) {
-        return new Mat(n_rowRange(nativeObj, startrow, endrow));
+        return new Mat(n_rowRange(addr(), startrow, endrow));
     }
 
     //
@@ -568,7 +588,7 @@ public class Mat {
 
     // javadoc: Mat::rowRange(r)
     public Mat rowRange(Range r) {
-        return new Mat(n_rowRange(nativeObj, r.start, r.end));
+        return new Mat(n_rowRange(addr(), r.start, r.end));
     }
 
     //
@@ -577,7 +597,7 @@ public class Mat {
 
     // javadoc: Mat::rows()
     public int rows() {
-        return n_rows(nativeObj);
+        return n_rows(addr());
     }
 
     //
@@ -586,7 +606,7 @@ public class Mat {
 
     // javadoc: Mat::operator =(s)
     public Mat setTo(Scalar s) {
-        return new Mat(n_setTo(nativeObj, s.val[0], s.val[1], s.val[2], s.val[3]));
+        return new Mat(n_setTo(addr(), s.val[0], s.val[1], s.val[2], s.val[3]));
     }
 
     //
@@ -595,7 +615,7 @@ public class Mat {
 
     // javadoc: Mat::setTo(value, mask)
     public Mat setTo(Scalar value, Mat mask) {
-        return new Mat(n_setTo(nativeObj, value.val[0], value.val[1], value.val[2], value.val[3], mask.nativeObj));
+        return new Mat(n_setTo(addr(), value.val[0], value.val[1], value.val[2], value.val[3], mask.nativeObj));
     }
 
     //
@@ -604,12 +624,12 @@ public class Mat {
 
     // javadoc: Mat::setTo(value, mask)
     public Mat setTo(Mat value, Mat mask) {
-        return new Mat(n_setTo(nativeObj, value.nativeObj, mask.nativeObj));
+        return new Mat(n_setTo(addr(), value.nativeObj, mask.nativeObj));
     }
 
     // javadoc: Mat::setTo(value)
     public Mat setTo(Mat value) {
-        return new Mat(n_setTo(nativeObj, value.nativeObj));
+        return new Mat(n_setTo(addr(), value.nativeObj));
     }
 
     //
@@ -618,7 +638,7 @@ public class Mat {
 
     // javadoc: Mat::size()
     public Size size() {
-        return new Size(n_size(nativeObj));
+        return new Size(n_size(addr()));
     }
 
     //
@@ -627,7 +647,7 @@ public class Mat {
 
     // javadoc: Mat::size(int i)
     public int size(int i) {
-        return n_size_i(nativeObj, i);
+        return n_size_i(addr(), i);
     }
 
     //
@@ -636,12 +656,12 @@ public class Mat {
 
     // javadoc: Mat::step1(i)
     public long step1(int i) {
-        return n_step1(nativeObj, i);
+        return n_step1(addr(), i);
     }
 
     // javadoc: Mat::step1()
     public long step1() {
-        return n_step1(nativeObj);
+        return n_step1(addr());
     }
 
     //
@@ -651,7 +671,7 @@ public class Mat {
 
     // javadoc: Mat::operator()(rowStart, rowEnd, colStart, colEnd)
     public Mat submat(int rowStart, int rowEnd, int colStart, int colEnd) {
-        return new Mat(n_submat_rr(nativeObj, rowStart, rowEnd, colStart, colEnd));
+        return new Mat(n_submat_rr(addr(), rowStart, rowEnd, colStart, colEnd));
     }
 
     //
@@ -660,7 +680,7 @@ public class Mat {
 
     // javadoc: Mat::operator()(rowRange, colRange)
     public Mat submat(Range rowRange, Range colRange) {
-        return new Mat(n_submat_rr(nativeObj, rowRange.start, rowRange.end, colRange.start, colRange.end));
+        return new Mat(n_submat_rr(addr(), rowRange.start, rowRange.end, colRange.start, colRange.end));
     }
 
     //
@@ -669,7 +689,7 @@ public class Mat {
 
     // javadoc: Mat::operator()(ranges[])
     public Mat submat(Range[] ranges) {
-        return new Mat(n_submat_ranges(nativeObj, ranges));
+        return new Mat(n_submat_ranges(addr(), ranges));
     }
 
     //
@@ -678,7 +698,7 @@ public class Mat {
 
     // javadoc: Mat::operator()(roi)
     public Mat submat(Rect roi) {
-        return new Mat(n_submat(nativeObj, roi.x, roi.y, roi.width, roi.height));
+        return new Mat(n_submat(addr(), roi.x, roi.y, roi.width, roi.height));
     }
 
     //
@@ -687,7 +707,7 @@ public class Mat {
 
     // javadoc: Mat::t()
     public Mat t() {
-        return new Mat(n_t(nativeObj));
+        return new Mat(n_t(addr()));
     }
 
     //
@@ -696,7 +716,7 @@ public class Mat {
 
     // javadoc: Mat::total()
     public long total() {
-        return n_total(nativeObj);
+        return n_total(addr());
     }
 
     //
@@ -705,7 +725,7 @@ public class Mat {
 
     // javadoc: Mat::type()
     public int type() {
-        return n_type(nativeObj);
+        return n_type(addr());
     }
 
     //
@@ -735,29 +755,44 @@ public class Mat {
         return new Mat(n_zeros(sizes.length, sizes, type));
     }
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The Mat shall not be used after this call, its methods throw IllegalStateException.
+     * Other headers sharing the same data stay valid.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        n_delete(nativeObj);
-        super.finalize();
+    public void close() {
+        MatCleaner.delete(this);
+    }
+
+    /**
+     * Returns the native address, throws IllegalStateException if the Mat was closed
+     */
+    private long addr() {
+        if (mClosed)
+            throw new IllegalStateException("Mat is closed");
+        return nativeObj;
     }
 
     // javadoc:Mat::toString()
     @Override
     public String toString() {
+        if (mClosed)
+            return "Mat [ closed ]";
         String _dims = (dims() > 0) ? "" : "-1*-1*";
         for (int i=0; i<dims(); i++) {
             _dims += size(i) + "*";
         }
         return "Mat [ " + _dims + CvType.typeToString(type()) +
                 ", isCont=" + isContinuous() + ", isSubmat=" + isSubmatrix() +
-                ", nativeObj=0x" + Long.toHexString(nativeObj) +
+                ", nativeObj=0x" + Long.toHexString(addr()) +
                 ", dataAddr=0x" + Long.toHexString(dataAddr()) +
                 " ]";
     }
 
     // javadoc:Mat::dump()
     public String dump() {
-        return nDump(nativeObj);
+        return nDump(addr());
     }
 
     // javadoc:Mat::put(row,col,data)
@@ -769,7 +804,7 @@ public class Mat {
                             (data == null ? 0 : data.length) +
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
-        return nPutD(nativeObj, row, col, data.length, data);
+        return nPutD(addr(), row, col, data.length, data);
     }
 
     // javadoc:Mat::put(idx,data)
@@ -783,7 +818,7 @@ public class Mat {
                             CvType.channels(t) + ")");
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
-        return nPutDIdx(nativeObj, idx, data.length, data);
+        return nPutDIdx(addr(), idx, data.length, data);
     }
 
     // javadoc:Mat::put(row,col,data)
@@ -796,7 +831,7 @@ public class Mat {
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
         if (CvType.depth(t) == CvType.CV_32F) {
-            return nPutF(nativeObj, row, col, data.length, data);
+            return nPutF(addr(), row, col, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -813,7 +848,7 @@ public class Mat {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
         if (CvType.depth(t) == CvType.CV_32F) {
-            return nPutFIdx(nativeObj, idx, data.length, data);
+            return nPutFIdx(addr(), idx, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -828,7 +863,7 @@ public class Mat {
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
         if (CvType.depth(t) == CvType.CV_32S) {
-            return nPutI(nativeObj, row, col, data.length, data);
+            return nPutI(addr(), row, col, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -845,7 +880,7 @@ public class Mat {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
         if (CvType.depth(t) == CvType.CV_32S) {
-            return nPutIIdx(nativeObj, idx, data.length, data);
+            return nPutIIdx(addr(), idx, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -860,7 +895,7 @@ public class Mat {
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
         if (CvType.depth(t) == CvType.CV_16U || CvType.depth(t) == CvType.CV_16S) {
-            return nPutS(nativeObj, row, col, data.length, data);
+            return nPutS(addr(), row, col, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -877,7 +912,7 @@ public class Mat {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
         if (CvType.depth(t) == CvType.CV_16U || CvType.depth(t) == CvType.CV_16S) {
-            return nPutSIdx(nativeObj, idx, data.length, data);
+            return nPutSIdx(addr(), idx, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -892,7 +927,7 @@ public class Mat {
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
         if (CvType.depth(t) == CvType.CV_8U || CvType.depth(t) == CvType.CV_8S) {
-            return nPutB(nativeObj, row, col, data.length, data);
+            return nPutB(addr(), row, col, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -909,7 +944,7 @@ public class Mat {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
         if (CvType.depth(t) == CvType.CV_8U || CvType.depth(t) == CvType.CV_8S) {
-            return nPutBIdx(nativeObj, idx, data.length, data);
+            return nPutBIdx(addr(), idx, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -924,7 +959,7 @@ public class Mat {
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
         if (CvType.depth(t) == CvType.CV_8U || CvType.depth(t) == CvType.CV_8S) {
-            return nPutBwOffset(nativeObj, row, col, length, offset, data);
+            return nPutBwOffset(addr(), row, col, length, offset, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -941,7 +976,7 @@ public class Mat {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
         if (CvType.depth(t) == CvType.CV_8U || CvType.depth(t) == CvType.CV_8S) {
-            return nPutBwIdxOffset(nativeObj, idx, length, offset, data);
+            return nPutBwIdxOffset(addr(), idx, length, offset, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -956,7 +991,7 @@ public class Mat {
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
         if (CvType.depth(t) == CvType.CV_8U || CvType.depth(t) == CvType.CV_8S) {
-            return nGetB(nativeObj, row, col, data.length, data);
+            return nGetB(addr(), row, col, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -973,7 +1008,7 @@ public class Mat {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
         if (CvType.depth(t) == CvType.CV_8U || CvType.depth(t) == CvType.CV_8S) {
-            return nGetBIdx(nativeObj, idx, data.length, data);
+            return nGetBIdx(addr(), idx, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -988,7 +1023,7 @@ public class Mat {
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
         if (CvType.depth(t) == CvType.CV_16U || CvType.depth(t) == CvType.CV_16S) {
-            return nGetS(nativeObj, row, col, data.length, data);
+            return nGetS(addr(), row, col, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -1005,7 +1040,7 @@ public class Mat {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
         if (CvType.depth(t) == CvType.CV_16U || CvType.depth(t) == CvType.CV_16S) {
-            return nGetSIdx(nativeObj, idx, data.length, data);
+            return nGetSIdx(addr(), idx, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -1020,7 +1055,7 @@ public class Mat {
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
         if (CvType.depth(t) == CvType.CV_32S) {
-            return nGetI(nativeObj, row, col, data.length, data);
+            return nGetI(addr(), row, col, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -1037,7 +1072,7 @@ public class Mat {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
         if (CvType.depth(t) == CvType.CV_32S) {
-            return nGetIIdx(nativeObj, idx, data.length, data);
+            return nGetIIdx(addr(), idx, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -1052,7 +1087,7 @@ public class Mat {
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
         if (CvType.depth(t) == CvType.CV_32F) {
-            return nGetF(nativeObj, row, col, data.length, data);
+            return nGetF(addr(), row, col, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -1069,7 +1104,7 @@ public class Mat {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
         if (CvType.depth(t) == CvType.CV_32F) {
-            return nGetFIdx(nativeObj, idx, data.length, data);
+            return nGetFIdx(addr(), idx, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -1084,7 +1119,7 @@ public class Mat {
                             ") should be multiple of the Mat channels count (" +
                             CvType.channels(t) + ")");
         if (CvType.depth(t) == CvType.CV_64F) {
-            return nGetD(nativeObj, row, col, data.length, data);
+            return nGetD(addr(), row, col, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
@@ -1101,21 +1136,21 @@ public class Mat {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
         if (CvType.depth(t) == CvType.CV_64F) {
-            return nGetDIdx(nativeObj, idx, data.length, data);
+            return nGetDIdx(addr(), idx, data.length, data);
         }
         throw new UnsupportedOperationException("Mat data type is not compatible: " + t);
     }
 
     // javadoc:Mat::get(row,col)
     public double[] get(int row, int col) {
-        return nGet(nativeObj, row, col);
+        return nGet(addr(), row, col);
     }
 
     // javadoc:Mat::get(idx)
     public double[] get(int[] idx) {
         if (idx.length != dims())
             throw new IllegalArgumentException("Incorrect number of indices");
-        return nGetIdx(nativeObj, idx);
+        return nGetIdx(addr(), idx);
     }
 
     // javadoc:Mat::height()
@@ -1130,7 +1165,7 @@ public class Mat {
 
     // javadoc:Mat::getNativeObjAddr()
     public long getNativeObjAddr() {
-        return nativeObj;
+        return addr();
     }
 
     // C++: Mat::Mat()
@@ -1232,7 +1267,7 @@ public class Mat {
     private static native long n_cross(long nativeObj, long m_nativeObj);
 
     // C++: long Mat::dataAddr()
-    private static native long n_dataAddr(long nativeObj);
+    static native long n_dataAddr(long nativeObj);
 
     // C++: int Mat::depth()
     private static native int n_depth(long nativeObj);
@@ -1247,7 +1282,7 @@ public class Mat {
     private static native double n_dot(long nativeObj, long m_nativeObj);
 
     // C++: size_t Mat::elemSize()
-    private static native long n_elemSize(long nativeObj);
+    static native long n_elemSize(long nativeObj);
 
     // C++: size_t Mat::elemSize1()
     private static native long n_elemSize1(long nativeObj);
@@ -1347,7 +1382,7 @@ public class Mat {
     private static native long n_t(long nativeObj);
 
     // C++: size_t Mat::total()
-    private static native long n_total(long nativeObj);
+    static native long n_total(long nativeObj);
 
     // C++: int Mat::type()
     private static native int n_type(long nativeObj);
@@ -1361,8 +1396,8 @@ public class Mat {
     // C++: static Mat Mat::zeros(int ndims, const int* sizes, int type)
     private static native long n_zeros(int ndims, int[] sizes, int type);
 
-    // native support for java finalize()
-    private static native void n_delete(long nativeObj);
+    // native support for MatCleaner
+    static native void n_delete(long nativeObj);
 
     private static native int nPutD(long self, int row, int col, int count, double[] data);
 
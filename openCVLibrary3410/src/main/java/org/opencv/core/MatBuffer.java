@@ -0,0 +1,192 @@
+package org.opencv.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * This class gives Java code direct access to the pixels of a Mat without per-element JNI calls.
+ * The pixel data lives in a direct ByteBuffer in native byte order and the Mat is created over it,
+ * so both sides see the same memory: OpenCV functions operate on mat() while Java kernels read
+ * and write the buffer with the absolute get/put methods at memory speed.
+ * A MatBuffer can also be a strided view of a submatrix, see submat(). Rows of the view are not
+ * adjacent in the buffer, use index() or row() to address them.
+ * Attention: the buffer is not owned by the Mat. Keep the MatBuffer reachable while the Mat is used,
+ * and don't pass mat() as an output of a function which may reallocate it with another size or
+ * type, the Mat is detached from the buffer then (see isAttached()).
+ */
+public class MatBuffer {
+
+    private final Mat mMat;
+    private final ByteBuffer mBuffer;
+    private final long mBaseAddr;
+    private final int mOffset;
+    private final int mRows;
+    private final int mCols;
+    private final int mElemSize;
+    private final int mChannelSize;
+    private final int mRowStride;
+
+    private MatBuffer(Mat mat, ByteBuffer buffer, long baseAddr, int offset, int rowStride) {
+        mMat = mat;
+        mBuffer = buffer;
+        mBaseAddr = baseAddr;
+        mOffset = offset;
+        mRows = mat.rows();
+        mCols = mat.cols();
+        mElemSize = (int) mat.elemSize();
+        mChannelSize = (int) mat.elemSize1();
+        mRowStride = rowStride;
+    }
+
+    /**
+     * Allocates a continuous 2D Mat backed by a new direct buffer
+     */
+    public static MatBuffer allocate(int rows, int cols, int type) {
+        int rowStride = cols * CvType.ELEM_SIZE(type);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(rows * rowStride).order(ByteOrder.nativeOrder());
+        Mat mat = new Mat(rows, cols, type, buffer);
+        return new MatBuffer(mat, buffer, mat.dataAddr(), 0, rowStride);
+    }
+
+    /**
+     * Copies the 2D Mat into a new buffer backed Mat, this is the only copy needed to access
+     * an arbitrary Mat from Java
+     */
+    public static MatBuffer copyOf(Mat src) {
+        if (src.dims() > 2)
+            throw new IllegalArgumentException("Only 2D Mats are supported: " + src);
+        MatBuffer dst = allocate(src.rows(), src.cols(), src.type());
+        src.copyTo(dst.mMat);
+        return dst;
+    }
+
+    /**
+     * Returns the Mat sharing the buffer
+     */
+    public Mat mat() {
+        return mMat;
+    }
+
+    /**
+     * Returns false if the Mat was reallocated by OpenCV and doesn't use the buffer anymore
+     */
+    public boolean isAttached() {
+        return mMat.dataAddr() == mBaseAddr + mOffset;
+    }
+
+    /**
+     * Returns the whole underlying buffer in native byte order, shared with all the views
+     */
+    public ByteBuffer buffer() {
+        return mBuffer;
+    }
+
+    public int rows() {
+        return mRows;
+    }
+
+    public int cols() {
+        return mCols;
+    }
+
+    /**
+     * Returns the distance between the starts of two adjacent rows in bytes
+     */
+    public int rowStride() {
+        return mRowStride;
+    }
+
+    public int elemSize() {
+        return mElemSize;
+    }
+
+    public boolean isContinuous() {
+        return mRowStride == mCols * mElemSize;
+    }
+
+    /**
+     * Returns the byte index of the element in buffer()
+     * @param channel - the channel of the element, the index is multiplied by the channel size
+     */
+    public int index(int row, int col, int channel) {
+        return mOffset + row * mRowStride + col * mElemSize + channel * mChannelSize;
+    }
+
+    /**
+     * Returns the byte index of the first element of the row in buffer()
+     */
+    public int rowIndex(int row) {
+        return mOffset + row * mRowStride;
+    }
+
+    /**
+     * Returns a new buffer over the row which starts at position 0, use asFloatBuffer() etc.
+     * for typed access. The byte order is the native one.
+     */
+    public ByteBuffer row(int row) {
+        ByteBuffer dup = mBuffer.duplicate();
+        int start = rowIndex(row);
+        dup.limit(start + mCols * mElemSize);
+        dup.position(start);
+        return dup.slice().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns the strided view of the region, its Mat is the corresponding submatrix
+     */
+    public MatBuffer submat(Rect roi) {
+        Mat sub = mMat.submat(roi);
+        int offset = (int) (sub.dataAddr() - mBaseAddr);
+        return new MatBuffer(sub, mBuffer, mBaseAddr, offset, mRowStride);
+    }
+
+    public MatBuffer submat(int rowStart, int rowEnd, int colStart, int colEnd) {
+        return submat(new Rect(colStart, rowStart, colEnd - colStart, rowEnd - rowStart));
+    }
+
+    public int getUByte(int row, int col, int channel) {
+        return mBuffer.get(index(row, col, channel)) & 0xff;
+    }
+
+    public void putByte(int row, int col, int channel, int value) {
+        mBuffer.put(index(row, col, channel), (byte) value);
+    }
+
+    public short getShort(int row, int col, int channel) {
+        return mBuffer.getShort(index(row, col, channel));
+    }
+
+    public void putShort(int row, int col, int channel, short value) {
+        mBuffer.putShort(index(row, col, channel), value);
+    }
+
+    public int getInt(int row, int col, int channel) {
+        return mBuffer.getInt(index(row, col, channel));
+    }
+
+    public void putInt(int row, int col, int channel, int value) {
+        mBuffer.putInt(index(row, col, channel), value);
+    }
+
+    public float getFloat(int row, int col, int channel) {
+        return mBuffer.getFloat(index(row, col, channel));
+    }
+
+    public void putFloat(int row, int col, int channel, float value) {
+        mBuffer.putFloat(index(row, col, channel), value);
+    }
+
+    public double getDouble(int row, int col, int channel) {
+        return mBuffer.getDouble(index(row, col, channel));
+    }
+
+    public void putDouble(int row, int col, int channel, double value) {
+        mBuffer.putDouble(index(row, col, channel), value);
+    }
+
+    @Override
+    public String toString() {
+        return "MatBuffer [ " + mRows + "*" + mCols + "*" + CvType.typeToString(mMat.type())
+                + ", offset=" + mOffset + ", rowStride=" + mRowStride + " ]";
+    }
+}
@@ -0,0 +1,186 @@
+package org.opencv.core;
+
+import android.util.Log;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class frees the native part of Mat objects.
+ * Every Mat registers a phantom reference on construction. The native header is deleted either
+ * deterministically by Mat.close() (e.g. at the end of a try-with-resources block) or by a daemon
+ * thread once the Mat becomes unreachable, which replaces the finalize() based cleanup.
+ * The native buffers are invisible to the Java heap so the GC may not run often enough to free
+ * them. When a pressure threshold is set, the live native bytes are estimated periodically and a
+ * GC is requested when they exceed the threshold.
+ */
+public final class MatCleaner {
+
+    private static final String TAG = "MatCleaner";
+    private static final int PRESSURE_CHECK_INTERVAL = 256;
+
+    private static final ReferenceQueue<Mat> sQueue = new ReferenceQueue<Mat>();
+    private static final ConcurrentHashMap<Long, MatReference> sLive =
+            new ConcurrentHashMap<Long, MatReference>();
+    private static final Object sDeleteLock = new Object();
+    private static final AtomicInteger sRegistrations = new AtomicInteger();
+    private static volatile long sPressureThreshold;
+
+    static {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    MatReference ref;
+                    try {
+                        ref = (MatReference) sQueue.remove();
+                    } catch (InterruptedException e) {
+                        /* the thread lives as long as the process */
+                        continue;
+                    }
+                    try {
+                        clean(ref);
+                    } catch (Throwable t) {
+                        /* e.g. thrown by a leak listener, the other Mats shall still be freed */
+                        Log.e(TAG, "Failed to clean up Mat 0x" + Long.toHexString(ref.nativeObj), t);
+                    }
+                }
+            }
+        }, "OpenCVMatCleaner");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    static class MatReference extends PhantomReference<Mat> {
+        final long nativeObj;
+        /* filled by MatTracker, site is null for untracked Mats */
+        String type;
+        String site;
+        long createdNanos;
+
+        MatReference(Mat mat) {
+            super(mat, sQueue);
+            nativeObj = mat.nativeObj;
+        }
+    }
+
+    private MatCleaner() {
+    }
+
+    private static void clean(MatReference ref) {
+        long leakedBytes = 0;
+        synchronized (sDeleteLock) {
+            if (!sLive.remove(ref.nativeObj, ref))
+                return;
+            try {
+                if (ref.site != null)
+                    leakedBytes = dataBytes(ref.nativeObj);
+            } finally {
+                Mat.n_delete(ref.nativeObj);
+            }
+        }
+        if (ref.site != null)
+            MatTracker.onCollected(ref, leakedBytes);
+    }
+
+    static void register(Mat mat) {
+        MatReference ref = new MatReference(mat);
+        mat.mCleanerRef = ref;
+        if (MatTracker.isEnabled())
+            MatTracker.track(ref, mat);
+        sLive.put(mat.nativeObj, ref);
+        if (sPressureThreshold > 0 && sRegistrations.incrementAndGet() % PRESSURE_CHECK_INTERVAL == 0)
+            checkPressure();
+    }
+
+    /**
+     * Deletes the native header of the Mat immediately, it is a no-op if it was deleted already.
+     * The entry is removed only if it still belongs to this Mat: after the deletion the native
+     * address may be reused by a new Mat, which shall not be freed by a second close().
+     */
+    static void delete(Mat mat) {
+        synchronized (sDeleteLock) {
+            MatReference ref = mat.mCleanerRef;
+            mat.mClosed = true;
+            if (ref != null && sLive.remove(ref.nativeObj, ref)) {
+                ref.clear();
+                Mat.n_delete(ref.nativeObj);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of Mat headers which are not deleted yet
+     */
+    public static int liveCount() {
+        return sLive.size();
+    }
+
+    /**
+     * Estimates the native bytes held by the live Mats. Mats sharing the same data pointer are
+     * counted once, overlapping submatrices are counted separately so the result is an upper bound.
+     */
+    public static long liveBytes() {
+        Set<Long> counted = new HashSet<Long>();
+        long bytes = 0;
+        /* the headers shall not be deleted while they are inspected */
+        synchronized (sDeleteLock) {
+            for (MatReference ref : sLive.values()) {
+                long data = Mat.n_dataAddr(ref.nativeObj);
+                if (data != 0 && counted.add(data))
+                    bytes += Mat.n_total(ref.nativeObj) * Mat.n_elemSize(ref.nativeObj);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the tracking info and the current size of the live tracked Mats
+     */
+    static List<MatTracker.Entry> trackedSnapshot() {
+        List<MatTracker.Entry> entries = new ArrayList<MatTracker.Entry>();
+        synchronized (sDeleteLock) {
+            for (MatReference ref : sLive.values()) {
+                if (ref.site != null)
+                    entries.add(new MatTracker.Entry(ref.type, ref.site, dataBytes(ref.nativeObj)));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the size of the Mat data or 0 if the Mat holds no data
+     */
+    private static long dataBytes(long nativeObj) {
+        if (Mat.n_dataAddr(nativeObj) == 0)
+            return 0;
+        return Mat.n_total(nativeObj) * Mat.n_elemSize(nativeObj);
+    }
+
+    /**
+     * Requests a GC when liveBytes() exceeds the threshold, checked every few Mat allocations.
+     * @param bytes - the threshold, 0 disables the check
+     */
+    public static void setPressureThreshold(long bytes) {
+        sPressureThreshold = bytes;
+    }
+
+    private static void checkPressure() {
+        if (liveBytes() > sPressureThreshold)
+            collect();
+    }
+
+    /**
+     * Requests a GC so that the unreachable Mats are enqueued and freed by the cleaner thread
+     */
+    public static void collect() {
+        System.gc();
+        System.runFinalization();
+    }
+}
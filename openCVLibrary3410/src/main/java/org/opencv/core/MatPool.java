@@ -0,0 +1,155 @@
+package org.opencv.core;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * This class keeps released Mats to hand them out again for the same rows, cols and type,
+ * so that the steady state processing of equally sized frames does no native allocation.
+ * Only the Mats acquired from the pool can be released to it. The pool doesn't reference the
+ * acquired Mats, one which is dropped instead of released is freed by the garbage collector like
+ * any other Mat. The number of kept Mats per shape
+ * is capped and the least recently used shapes are trimmed when the kept bytes exceed the limit.
+ * The returned Mats are not cleared, their content is undefined. The class is thread safe.
+ */
+public class MatPool {
+
+    private final int mMaxPerKey;
+    private final long mMaxBytes;
+    private final LinkedHashMap<Long, ArrayDeque<Mat>> mFree =
+            new LinkedHashMap<Long, ArrayDeque<Mat>>(16, 0.75f, true);
+    /* the acquired Mats are marked by Mat.mPool, this count includes the dropped ones */
+    private long mAcquired;
+    private long mFreeBytes;
+
+    private long mHits;
+    private long mMisses;
+    private long mEvictions;
+
+    /**
+     * @param maxPerKey - the maximal number of kept Mats of the same shape
+     * @param maxBytes - the maximal size of the kept Mats in bytes
+     */
+    public MatPool(int maxPerKey, long maxBytes) {
+        if (maxPerKey <= 0)
+            throw new IllegalArgumentException("maxPerKey must be positive: " + maxPerKey);
+        mMaxPerKey = maxPerKey;
+        mMaxBytes = maxBytes;
+    }
+
+    public Mat acquire(Size size, int type) {
+        return acquire((int) size.height, (int) size.width, type);
+    }
+
+    /**
+     * Returns a kept Mat of the given shape or allocates a new one
+     */
+    public synchronized Mat acquire(int rows, int cols, int type) {
+        ArrayDeque<Mat> free = mFree.get(key(rows, cols, type));
+        Mat mat = free != null ? free.pollLast() : null;
+        if (mat != null) {
+            mHits++;
+            mFreeBytes -= bytes(mat);
+        } else {
+            mMisses++;
+            mat = new Mat(rows, cols, type);
+        }
+        mat.mPool = this;
+        mAcquired++;
+        return mat;
+    }
+
+    /**
+     * Returns the Mat to the pool, it shall not be used by the caller anymore.
+     * The Mat is kept under its current shape, it is deleted if it can not be kept.
+     * @return false if the Mat was not acquired from this pool, it is left untouched then
+     */
+    public synchronized boolean release(Mat mat) {
+        if (mat.mPool != this)
+            return false;
+        mat.mPool = null;
+        mAcquired--;
+        if (mat.mClosed)
+            return true;
+        if (mat.empty() || mat.dims() > 2 || mat.isSubmatrix()) {
+            mat.close();
+            return true;
+        }
+        Long key = key(mat.rows(), mat.cols(), mat.type());
+        ArrayDeque<Mat> free = mFree.get(key);
+        if (free == null) {
+            free = new ArrayDeque<Mat>(mMaxPerKey);
+            mFree.put(key, free);
+        }
+        if (free.size() >= mMaxPerKey) {
+            mEvictions++;
+            mat.close();
+            return true;
+        }
+        free.addLast(mat);
+        mFreeBytes += bytes(mat);
+        trim();
+        return true;
+    }
+
+    /**
+     * Deletes all the kept Mats, the acquired ones can still be released
+     */
+    public synchronized void clear() {
+        for (ArrayDeque<Mat> free : mFree.values()) {
+            for (Mat mat : free)
+                mat.close();
+        }
+        mFree.clear();
+        mFreeBytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return mHits;
+    }
+
+    public synchronized long getMisses() {
+        return mMisses;
+    }
+
+    public synchronized long getEvictions() {
+        return mEvictions;
+    }
+
+    /**
+     * Returns the size of the kept Mats in bytes
+     */
+    public synchronized long getFreeBytes() {
+        return mFreeBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "MatPool [ hits=" + mHits + ", misses=" + mMisses + ", evictions=" + mEvictions
+                + ", freeBytes=" + mFreeBytes + ", acquired=" + mAcquired + " ]";
+    }
+
+    private void trim() {
+        Iterator<ArrayDeque<Mat>> it = mFree.values().iterator();
+        while (mFreeBytes > mMaxBytes && it.hasNext()) {
+            ArrayDeque<Mat> free = it.next();
+            while (mFreeBytes > mMaxBytes && !free.isEmpty()) {
+                Mat mat = free.pollFirst();
+                mFreeBytes -= bytes(mat);
+                mEvictions++;
+                mat.close();
+            }
+            if (free.isEmpty())
+                it.remove();
+        }
+    }
+
+    private static long key(int rows, int cols, int type) {
+        return ((long) rows << 40) | ((long) cols << 16) | type;
+    }
+
+    private static long bytes(Mat mat) {
+        return mat.total() * mat.elemSize();
+    }
+}
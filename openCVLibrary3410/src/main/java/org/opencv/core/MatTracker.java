@@ -0,0 +1,223 @@
+package org.opencv.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is an opt-in registry of the live Mat objects, including all the MatOf* classes,
+ * and of the other native wrappers freed by NativeCleaner, e.g. Net or CascadeClassifier.
+ * While enabled, every new object records its class, allocation site (the first stack frame outside
+ * of org.opencv.core and of the wrapper classes) and creation time. The live objects and native
+ * bytes can then be grouped by class or by allocation site. A Mat which is garbage collected while
+ * still holding its data, i.e. neither release() nor close() was called, is reported as a leak.
+ * A wrapper is reported when it is garbage collected without close(), its size is unknown.
+ * Recording the allocation site walks the stack on every construction, it is meant for
+ * debugging only. Objects created while the tracker is disabled are not reported.
+ */
+public final class MatTracker {
+
+    private static final int MAX_LEAKS = 256;
+
+    /**
+     * The bytes of the wrappers whose native size is not known
+     */
+    public static final long UNKNOWN_BYTES = -1;
+
+    private static volatile boolean sEnabled;
+    private static volatile LeakListener sLeakListener;
+    private static final LinkedList<Leak> sLeaks = new LinkedList<Leak>();
+
+    public interface LeakListener {
+        /**
+         * Called on the cleanup thread for every leaked Mat or wrapper
+         */
+        public void onLeak(Leak leak);
+    }
+
+    /**
+     * Live objects of a class or allocation site
+     */
+    public static class Stats {
+        public int count;
+        /* the bytes of the objects with a known size */
+        public long bytes;
+        /* the number of objects of unknown size */
+        public int unsized;
+
+        @Override
+        public String toString() {
+            String s = count + " objects, " + bytes + " bytes";
+            return unsized == 0 ? s : s + ", " + unsized + " of unknown size";
+        }
+    }
+
+    /**
+     * A Mat or wrapper which was garbage collected without release() or close(),
+     * bytes is UNKNOWN_BYTES for the wrappers
+     */
+    public static class Leak {
+        public final String type;
+        public final String site;
+        public final long bytes;
+        public final long ageMillis;
+
+        Leak(String type, String site, long bytes, long ageMillis) {
+            this.type = type;
+            this.site = site;
+            this.bytes = bytes;
+            this.ageMillis = ageMillis;
+        }
+
+        @Override
+        public String toString() {
+            String size = bytes == UNKNOWN_BYTES ? "unknown size" : bytes + " bytes";
+            return type + " of " + size + " allocated at " + site + " leaked after " + ageMillis + " ms";
+        }
+    }
+
+    /**
+     * A snapshot of a live tracked object
+     */
+    static class Entry {
+        final String type;
+        final String site;
+        final long bytes;
+
+        Entry(String type, String site, long bytes) {
+            this.type = type;
+            this.site = site;
+            this.bytes = bytes;
+        }
+    }
+
+    private MatTracker() {
+    }
+
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    public static void setLeakListener(LeakListener listener) {
+        sLeakListener = listener;
+    }
+
+    /**
+     * Returns the live tracked objects grouped by their class
+     */
+    public static Map<String, Stats> liveByType() {
+        return group(true);
+    }
+
+    /**
+     * Returns the live tracked objects grouped by their allocation site
+     */
+    public static Map<String, Stats> liveBySite() {
+        return group(false);
+    }
+
+    /**
+     * Returns the leaks reported since the previous call, at most the last 256 ones
+     */
+    public static List<Leak> drainLeaks() {
+        synchronized (sLeaks) {
+            List<Leak> leaks = new ArrayList<Leak>(sLeaks);
+            sLeaks.clear();
+            return leaks;
+        }
+    }
+
+    private static Map<String, Stats> group(boolean byType) {
+        Map<String, Stats> result = new HashMap<String, Stats>();
+        List<Entry> entries = MatCleaner.trackedSnapshot();
+        entries.addAll(NativeCleaner.trackedSnapshot());
+        for (Entry entry : entries) {
+            String key = byType ? entry.type : entry.site;
+            Stats stats = result.get(key);
+            if (stats == null) {
+                stats = new Stats();
+                result.put(key, stats);
+            }
+            stats.count++;
+            if (entry.bytes == UNKNOWN_BYTES)
+                stats.unsized++;
+            else
+                stats.bytes += entry.bytes;
+        }
+        return result;
+    }
+
+    /**
+     * Fills the tracking info of a new Mat, called only while the tracker is enabled
+     */
+    static void track(MatCleaner.MatReference ref, Mat mat) {
+        ref.type = mat.getClass().getSimpleName();
+        ref.site = allocationSite(null);
+        ref.createdNanos = System.nanoTime();
+    }
+
+    /**
+     * Fills the tracking info of a new wrapper, called only while the tracker is enabled
+     */
+    static void track(NativeCleaner.Handle handle, Object owner) {
+        handle.type = owner.getClass().getSimpleName();
+        handle.site = allocationSite(owner.getClass());
+        handle.createdNanos = System.nanoTime();
+    }
+
+    /**
+     * Called on the cleanup thread after the header of a tracked unreachable Mat is deleted,
+     * bytes is the size of the data it was still holding
+     */
+    static void onCollected(MatCleaner.MatReference ref, long bytes) {
+        if (bytes == 0)
+            return;
+        report(new Leak(ref.type, ref.site, bytes, (System.nanoTime() - ref.createdNanos) / 1000000));
+    }
+
+    /**
+     * Called on the cleanup thread after a tracked wrapper was collected without close()
+     */
+    static void onCollected(NativeCleaner.Handle handle) {
+        report(new Leak(handle.type, handle.site, UNKNOWN_BYTES,
+                (System.nanoTime() - handle.createdNanos) / 1000000));
+    }
+
+    private static void report(Leak leak) {
+        synchronized (sLeaks) {
+            if (sLeaks.size() == MAX_LEAKS)
+                sLeaks.removeFirst();
+            sLeaks.addLast(leak);
+        }
+        LeakListener listener = sLeakListener;
+        if (listener != null)
+            listener.onLeak(leak);
+    }
+
+    /**
+     * @param wrapper - the class of the wrapper whose constructors are skipped with its superclasses,
+     *                null for a Mat
+     */
+    private static String allocationSite(Class<?> wrapper) {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            String name = element.getClassName();
+            if (!name.startsWith("org.opencv.core.") && !isWrapperClass(wrapper, name))
+                return element.toString();
+        }
+        return "unknown";
+    }
+
+    private static boolean isWrapperClass(Class<?> wrapper, String name) {
+        for (Class<?> c = wrapper; c != null; c = c.getSuperclass()) {
+            if (c.getName().equals(name))
+                return true;
+        }
+        return false;
+    }
+}
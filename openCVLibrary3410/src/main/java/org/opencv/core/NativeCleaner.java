@@ -0,0 +1,132 @@
+package org.opencv.core;
+
+import android.util.Log;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class frees the native part of the generated wrappers, e.g. Algorithm, Net or CascadeClassifier.
+ * It works like MatCleaner: every wrapper registers a phantom reference on construction and the
+ * native object is deleted either by close() or by a daemon thread once the wrapper becomes
+ * unreachable. Each class has its own native delete function, it is passed as a Deleter.
+ * While MatTracker is enabled the wrappers are tracked as well, see MatTracker.
+ */
+public final class NativeCleaner {
+
+    private static final String TAG = "NativeCleaner";
+
+    private static final ReferenceQueue<Object> sQueue = new ReferenceQueue<Object>();
+    private static final Set<Handle> sLive =
+            Collections.newSetFromMap(new ConcurrentHashMap<Handle, Boolean>());
+
+    static {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    Handle handle;
+                    try {
+                        handle = (Handle) sQueue.remove();
+                    } catch (InterruptedException e) {
+                        /* the thread lives as long as the process */
+                        continue;
+                    }
+                    try {
+                        if (handle.delete() && handle.site != null)
+                            MatTracker.onCollected(handle);
+                    } catch (Throwable t) {
+                        Log.e(TAG, "Failed to delete native object 0x" + Long.toHexString(handle.mNativeObj), t);
+                    }
+                }
+            }
+        }, "OpenCVNativeCleaner");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Deletes a native object of a given class
+     */
+    public interface Deleter {
+        public void delete(long nativeObj);
+    }
+
+    /**
+     * The registration of one wrapper. It is removed by identity, so the native address may be
+     * reused by a new object once it is deleted.
+     */
+    public static final class Handle extends PhantomReference<Object> {
+        private final long mNativeObj;
+        private final Deleter mDeleter;
+        /* filled by MatTracker, site is null for untracked objects */
+        String type;
+        String site;
+        long createdNanos;
+
+        private Handle(Object owner, long nativeObj, Deleter deleter) {
+            super(owner, sQueue);
+            mNativeObj = nativeObj;
+            mDeleter = deleter;
+        }
+
+        /**
+         * Deletes the native object immediately, it is a no-op if it was deleted already
+         */
+        public void close() {
+            clear();
+            delete();
+        }
+
+        /**
+         * Returns false if the object was deleted already
+         */
+        private boolean delete() {
+            if (!sLive.remove(this))
+                return false;
+            mDeleter.delete(mNativeObj);
+            return true;
+        }
+    }
+
+    private NativeCleaner() {
+    }
+
+    /**
+     * Registers the wrapper of a native object
+     * @return the handle to close the object, null if nativeObj is 0
+     */
+    public static Handle register(Object owner, long nativeObj, Deleter deleter) {
+        if (nativeObj == 0)
+            return null;
+        Handle handle = new Handle(owner, nativeObj, deleter);
+        if (MatTracker.isEnabled())
+            MatTracker.track(handle, owner);
+        sLive.add(handle);
+        return handle;
+    }
+
+    /**
+     * Returns the tracking info of the live tracked wrappers, their size is unknown
+     */
+    static List<MatTracker.Entry> trackedSnapshot() {
+        List<MatTracker.Entry> entries = new ArrayList<MatTracker.Entry>();
+        for (Handle handle : sLive) {
+            if (handle.site != null)
+                entries.add(new MatTracker.Entry(handle.type, handle.site, MatTracker.UNKNOWN_BYTES));
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the number of registered native objects which are not deleted yet
+     */
+    public static int liveCount() {
+        return sLive.size();
+    }
+}
@@ -33,10 +33,15 @@ package org.opencv.core;
  * </code>
  * SEE: getTickCount, getTickFrequency
  */
-public class TickMeter {
+public class TickMeter implements AutoCloseable {
 
     protected final long nativeObj;
-    protected TickMeter(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected TickMeter(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -49,6 +54,7 @@ public class TickMeter {
 
     public TickMeter() {
         nativeObj = TickMeter_0();
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -153,9 +159,21 @@ public class TickMeter {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -187,7 +205,14 @@ public class TickMeter {
     // C++:  void cv::TickMeter::stop()
     private static native void stop_0(long nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            TickMeter.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -3,6 +3,8 @@
 //
 package org.opencv.dnn;
 
+import org.opencv.core.NativeCleaner;
+
 
 
 // C++: class DictValue
@@ -10,10 +12,15 @@ package org.opencv.dnn;
  * This struct stores the scalar value (or array) of one of the following type: double, cv::String or int64.
  * TODO: Maybe int64 is useless because double type exactly stores at least 2^52 integers.
  */
-public class DictValue {
+public class DictValue implements AutoCloseable {
 
     protected final long nativeObj;
-    protected DictValue(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected DictValue(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -26,6 +33,7 @@ public class DictValue {
 
     public DictValue(String s) {
         nativeObj = DictValue_0(s);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -35,6 +43,7 @@ public class DictValue {
 
     public DictValue(double p) {
         nativeObj = DictValue_1(p);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -44,6 +53,7 @@ public class DictValue {
 
     public DictValue(int i) {
         nativeObj = DictValue_2(i);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -113,9 +123,21 @@ public class DictValue {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -150,7 +172,14 @@ public class DictValue {
     private static native int getIntValue_0(long nativeObj, int idx);
     private static native int getIntValue_1(long nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            DictValue.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -9,6 +9,7 @@ import org.opencv.core.Mat;
 import org.opencv.core.MatOfByte;
 import org.opencv.core.MatOfDouble;
 import org.opencv.core.MatOfInt;
+import org.opencv.core.NativeCleaner;
 import org.opencv.core.Scalar;
 import org.opencv.dnn.DictValue;
 import org.opencv.dnn.Layer;
@@ -27,10 +28,15 @@ import org.opencv.utils.Converters;
  *
  * This class supports reference counting of its instances, i. e. copies point to the same instance.
  */
-public class Net {
+public class Net implements AutoCloseable {
 
     protected final long nativeObj;
-    protected Net(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected Net(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -43,6 +49,7 @@ public class Net {
 
     public Net() {
         nativeObj = Net_0();
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -645,9 +652,21 @@ public class Net {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -760,7 +779,14 @@ public class Net {
     // C++:  void cv::dnn::Net::setPreferableTarget(int targetId)
     private static native void setPreferableTarget_0(long nativeObj, int targetId);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            Net.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
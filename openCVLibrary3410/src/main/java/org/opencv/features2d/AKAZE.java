@@ -3,6 +3,7 @@
 //
 package org.opencv.features2d;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.features2d.AKAZE;
 import org.opencv.features2d.Feature2D;
 
@@ -295,8 +296,8 @@ public class AKAZE extends Feature2D {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -356,7 +357,14 @@ public class AKAZE extends Feature2D {
     // C++:  void cv::AKAZE::setThreshold(double threshold)
     private static native void setThreshold_0(long nativeObj, double threshold);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            AKAZE.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfKeyPoint;
+import org.opencv.core.NativeCleaner;
 import org.opencv.utils.Converters;
 
 // C++: class BOWImgDescriptorExtractor
@@ -21,10 +22,15 @@ import org.opencv.utils.Converters;
  * encountered in the image. The i-th bin of the histogram is a frequency of i-th word of the
  * vocabulary in the given image.
  */
-public class BOWImgDescriptorExtractor {
+public class BOWImgDescriptorExtractor implements AutoCloseable {
 
     protected final long nativeObj;
-    protected BOWImgDescriptorExtractor(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected BOWImgDescriptorExtractor(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -110,9 +116,21 @@ public class BOWImgDescriptorExtractor {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -132,7 +150,14 @@ public class BOWImgDescriptorExtractor {
     // C++:  void cv::BOWImgDescriptorExtractor::setVocabulary(Mat vocabulary)
     private static native void setVocabulary_0(long nativeObj, long vocabulary_nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            BOWImgDescriptorExtractor.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
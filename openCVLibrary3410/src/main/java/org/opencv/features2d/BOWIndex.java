@@ -0,0 +1,271 @@
+package org.opencv.features2d;
+
+import java.util.Arrays;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+/**
+ * Inverted file index of bag-of-words image descriptors for image retrieval.
+ * Every image is added as its word histogram, e.g. computed by BOWImgDescriptorExtractor.
+ * The posting list of a word holds the images containing it with the word frequency, in primitive
+ * arrays. A query only visits the posting lists of its own words, so the cost depends on the
+ * number of candidates sharing words with it rather than on the number of images.
+ * The images are ranked by the cosine similarity of their TF-IDF weighted histograms,
+ * with idf(w) = log(N / df(w)). The weights are recomputed lazily after images were added.
+ * The class is thread safe, queries are serialized.
+ */
+public class BOWIndex {
+
+    private final int mWordCount;
+
+    private int[][] mPostingImages;
+    private float[][] mPostingTf;
+    private int[] mPostingSize;
+
+    private int mImages;
+    private int[] mImageIds = new int[0];
+    private float[] mNorms = new float[0];
+    private float[] mIdf;
+    private boolean mDirty;
+
+    /* query scratch */
+    private float[] mScores = new float[0];
+    private int[] mTouched = new int[0];
+    private float[] mHistogram;
+
+    /**
+     * @param wordCount - the vocabulary size, i.e. the number of histogram bins
+     */
+    public BOWIndex(int wordCount) {
+        if (wordCount <= 0)
+            throw new IllegalArgumentException("wordCount must be positive: " + wordCount);
+        mWordCount = wordCount;
+        mPostingImages = new int[wordCount][];
+        mPostingTf = new float[wordCount][];
+        mPostingSize = new int[wordCount];
+        mIdf = new float[wordCount];
+        mHistogram = new float[wordCount];
+    }
+
+    public int wordCount() {
+        return mWordCount;
+    }
+
+    public synchronized int size() {
+        return mImages;
+    }
+
+    /**
+     * Adds an image by its 1 x wordCount CV_32F histogram
+     * @param imageId - returned by the queries to identify the image
+     */
+    public synchronized void add(int imageId, Mat histogram) {
+        float[] h = readHistogram(histogram);
+        int image = newImage(imageId);
+        for (int w = 0; w < mWordCount; w++) {
+            if (h[w] > 0)
+                addPosting(w, image, h[w]);
+        }
+    }
+
+    /**
+     * Adds an image by the word ids of its descriptors, e.g. the best match of every descriptor
+     * against the vocabulary. The term frequencies are the word counts divided by the number of words.
+     */
+    public synchronized void add(int imageId, int[] words, int count) {
+        int image = newImage(imageId);
+        if (count == 0)
+            return;
+        int[] sorted = Arrays.copyOf(words, count);
+        Arrays.sort(sorted);
+        for (int i = 0; i < count; ) {
+            int j = i;
+            while (j < count && sorted[j] == sorted[i])
+                j++;
+            if (sorted[i] < 0 || sorted[i] >= mWordCount)
+                throw new IllegalArgumentException("Word " + sorted[i] + " out of range");
+            addPosting(sorted[i], image, (float) (j - i) / count);
+            i = j;
+        }
+    }
+
+    private int newImage(int imageId) {
+        if (mImages == mImageIds.length) {
+            int capacity = Math.max(64, mImages * 2);
+            mImageIds = Arrays.copyOf(mImageIds, capacity);
+            mNorms = Arrays.copyOf(mNorms, capacity);
+        }
+        mImageIds[mImages] = imageId;
+        mDirty = true;
+        return mImages++;
+    }
+
+    private void addPosting(int word, int image, float tf) {
+        int size = mPostingSize[word];
+        if (mPostingImages[word] == null) {
+            mPostingImages[word] = new int[4];
+            mPostingTf[word] = new float[4];
+        } else if (size == mPostingImages[word].length) {
+            mPostingImages[word] = Arrays.copyOf(mPostingImages[word], size * 2);
+            mPostingTf[word] = Arrays.copyOf(mPostingTf[word], size * 2);
+        }
+        mPostingImages[word][size] = image;
+        mPostingTf[word][size] = tf;
+        mPostingSize[word] = size + 1;
+    }
+
+    /**
+     * Returns the number of images containing the word
+     */
+    public synchronized int documentFrequency(int word) {
+        return mPostingSize[word];
+    }
+
+    /**
+     * Recomputes the idf of every word and the norms of the weighted image histograms
+     */
+    private void updateWeights() {
+        if (!mDirty)
+            return;
+        Arrays.fill(mNorms, 0, mImages, 0f);
+        for (int w = 0; w < mWordCount; w++) {
+            int df = mPostingSize[w];
+            float idf = df == 0 ? 0f : (float) Math.log((double) mImages / df);
+            mIdf[w] = idf;
+            int[] images = mPostingImages[w];
+            float[] tf = mPostingTf[w];
+            for (int i = 0; i < df; i++) {
+                float v = tf[i] * idf;
+                mNorms[images[i]] += v * v;
+            }
+        }
+        for (int i = 0; i < mImages; i++)
+            mNorms[i] = (float) Math.sqrt(mNorms[i]);
+        if (mScores.length < mImages) {
+            mScores = new float[mImageIds.length];
+            mTouched = new int[mImageIds.length];
+        }
+        mDirty = false;
+    }
+
+    /**
+     * Finds the images most similar to the query histogram
+     * @param histogram - the 1 x wordCount CV_32F histogram of the query image
+     * @param imageIds - receives the ids of the best images, its length is the number of results
+     * @param scores - receives the cosine similarities in decreasing order, may be null
+     * @return the number of results, less than imageIds.length when fewer images share words
+     */
+    public synchronized int query(Mat histogram, int[] imageIds, float[] scores) {
+        float[] h = readHistogram(histogram);
+        return query(h, imageIds, scores);
+    }
+
+    /**
+     * Finds the images most similar to the query given by the word ids of its descriptors,
+     * see query(Mat, int[], float[])
+     */
+    public synchronized int query(int[] words, int count, int[] imageIds, float[] scores) {
+        float[] h = mHistogram;
+        Arrays.fill(h, 0f);
+        for (int i = 0; i < count; i++)
+            h[words[i]] += 1f / count;
+        return query(h, imageIds, scores);
+    }
+
+    private int query(float[] h, int[] imageIds, float[] scores) {
+        updateWeights();
+        int k = imageIds.length;
+        if (k == 0 || mImages == 0)
+            return 0;
+
+        int touched = 0;
+        double queryNorm = 0;
+        for (int w = 0; w < mWordCount; w++) {
+            if (h[w] <= 0 || mIdf[w] == 0)
+                continue;
+            float qw = h[w] * mIdf[w];
+            queryNorm += qw * qw;
+            float weight = qw * mIdf[w];
+            int[] images = mPostingImages[w];
+            float[] tf = mPostingTf[w];
+            for (int i = 0, n = mPostingSize[w]; i < n; i++) {
+                int image = images[i];
+                if (mScores[image] == 0)
+                    mTouched[touched++] = image;
+                mScores[image] += weight * tf[i];
+            }
+        }
+        if (touched == 0)
+            return 0;
+
+        /* min-heap of the k best candidates, heap[0] is the worst kept one */
+        int[] heap = new int[Math.min(k, touched)];
+        int size = 0;
+        float qn = (float) Math.sqrt(queryNorm);
+        for (int t = 0; t < touched; t++) {
+            int image = mTouched[t];
+            float s = mScores[image] / (mNorms[image] * qn);
+            mScores[image] = s;
+            if (size < heap.length) {
+                heap[size] = image;
+                siftUp(heap, size++);
+            } else if (s > mScores[heap[0]]) {
+                heap[0] = image;
+                siftDown(heap, size);
+            }
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            int image = heap[0];
+            imageIds[i] = mImageIds[image];
+            if (scores != null)
+                scores[i] = mScores[image];
+            heap[0] = heap[i];
+            siftDown(heap, i);
+        }
+        for (int t = 0; t < touched; t++)
+            mScores[mTouched[t]] = 0;
+        return size;
+    }
+
+    private void siftUp(int[] heap, int i) {
+        int image = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (mScores[heap[parent]] <= mScores[image])
+                break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = image;
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int image = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && mScores[heap[child + 1]] < mScores[heap[child]])
+                child++;
+            if (mScores[heap[child]] >= mScores[image])
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = image;
+    }
+
+    private float[] readHistogram(Mat histogram) {
+        if (histogram.type() != CvType.CV_32FC1 || histogram.total() != mWordCount)
+            throw new IllegalArgumentException("Expected a CV_32F histogram of " + mWordCount + " bins: " + histogram);
+        histogram.get(0, 0, mHistogram);
+        return mHistogram;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BOWIndex [ words=" + mWordCount + ", images=" + mImages + " ]";
+    }
+}
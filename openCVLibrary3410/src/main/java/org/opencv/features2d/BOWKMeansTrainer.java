@@ -4,6 +4,7 @@
 package org.opencv.features2d;
 
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.core.TermCriteria;
 import org.opencv.features2d.BOWTrainer;
 
@@ -88,8 +89,8 @@ public class BOWKMeansTrainer extends BOWTrainer {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -106,7 +107,14 @@ public class BOWKMeansTrainer extends BOWTrainer {
     // C++:  Mat cv::BOWKMeansTrainer::cluster()
     private static native long cluster_1(long nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            BOWKMeansTrainer.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -8,6 +8,7 @@ import java.util.List;
 import org.opencv.core.Algorithm;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfDMatch;
+import org.opencv.core.NativeCleaner;
 import org.opencv.features2d.DescriptorMatcher;
 import org.opencv.utils.Converters;
 
@@ -596,8 +597,8 @@ public class DescriptorMatcher extends Algorithm {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -664,7 +665,14 @@ public class DescriptorMatcher extends Algorithm {
     // C++:  void cv::DescriptorMatcher::write(String fileName)
     private static native void write_0(long nativeObj, String fileName);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            DescriptorMatcher.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -0,0 +1,272 @@
+package org.opencv.features2d;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+/**
+ * This class keeps a growing set of descriptors in a memory-mapped file.
+ * The file is split into blocks of a fixed number of rows. Every block is mapped separately and
+ * wrapped by a Mat without any copy, so opening a store costs a few mmap calls regardless of its
+ * size and the pages are loaded by the OS on first access. Each descriptor row carries an int label,
+ * e.g. the id of the catalog image it was extracted from.
+ * Appending writes the new rows in place into the last block, the rows already stored are neither
+ * moved nor reloaded. An LshMatcher kept in sync with update() after every append() indexes only
+ * the new rows.
+ * Attention: the Mats returned by block() and blocks() point into the mapping, they shall not be
+ * used after close().
+ */
+public class DescriptorStore implements Closeable {
+
+    private static final int MAGIC = 0x53444356; // "VCDS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int DEFAULT_BLOCK_ROWS = 64 * 1024;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_TYPE = 8;
+    private static final int OFFSET_COLS = 12;
+    private static final int OFFSET_BLOCK_ROWS = 16;
+    private static final int OFFSET_ROWS = 20;
+
+    private final RandomAccessFile mFile;
+    private final FileChannel mChannel;
+    private final MappedByteBuffer mHeader;
+    private final int mType;
+    private final int mCols;
+    private final int mRowBytes;
+    private final int mBlockRows;
+    private final long mBlockBytes;
+    private final List<Block> mBlocks = new ArrayList<Block>();
+    private int mRows;
+
+    private static class Block {
+        final MappedByteBuffer buffer;
+        /* covers the whole capacity of the block, only the first rows are valid */
+        final Mat mat;
+
+        Block(MappedByteBuffer buffer, Mat mat) {
+            this.buffer = buffer;
+            this.mat = mat;
+        }
+    }
+
+    private DescriptorStore(RandomAccessFile file, int type, int cols, int blockRows, boolean create) throws IOException {
+        mFile = file;
+        mChannel = file.getChannel();
+        mHeader = mChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        mHeader.order(ByteOrder.LITTLE_ENDIAN);
+        if (create) {
+            mHeader.putInt(OFFSET_MAGIC, MAGIC);
+            mHeader.putInt(OFFSET_VERSION, VERSION);
+            mHeader.putInt(OFFSET_TYPE, type);
+            mHeader.putInt(OFFSET_COLS, cols);
+            mHeader.putInt(OFFSET_BLOCK_ROWS, blockRows);
+            mHeader.putInt(OFFSET_ROWS, 0);
+        } else {
+            if (mHeader.getInt(OFFSET_MAGIC) != MAGIC)
+                throw new IOException("Not a descriptor store");
+            if (mHeader.getInt(OFFSET_VERSION) != VERSION)
+                throw new IOException("Unsupported descriptor store version " + mHeader.getInt(OFFSET_VERSION));
+        }
+        mType = mHeader.getInt(OFFSET_TYPE);
+        mCols = mHeader.getInt(OFFSET_COLS);
+        mBlockRows = mHeader.getInt(OFFSET_BLOCK_ROWS);
+        mRows = mHeader.getInt(OFFSET_ROWS);
+        mRowBytes = mCols * CvType.ELEM_SIZE(mType);
+        mBlockBytes = (long) mBlockRows * (mRowBytes + 4);
+        if (mBlockBytes > Integer.MAX_VALUE)
+            throw new IOException("Block of " + mBlockRows + " rows is too large to be mapped");
+        int blocks = (mRows + mBlockRows - 1) / mBlockRows;
+        for (int i = 0; i < blocks; i++)
+            mapBlock(i);
+    }
+
+    /**
+     * Opens the store, the file is created if it doesn't exist
+     * @param type - the descriptor type, e.g. CV_8U for the binary descriptors
+     * @param cols - the descriptor length, e.g. 32 for ORB
+     * @throws IOException if the existing file holds descriptors of another type or length
+     */
+    public static DescriptorStore open(File file, int type, int cols) throws IOException {
+        return open(file, type, cols, DEFAULT_BLOCK_ROWS);
+    }
+
+    /**
+     * @param blockRows - the number of rows per mapped block, only used when the file is created
+     */
+    public static DescriptorStore open(File file, int type, int cols, int blockRows) throws IOException {
+        if (blockRows <= 0)
+            throw new IllegalArgumentException("blockRows must be positive: " + blockRows);
+        boolean create = !file.exists() || file.length() == 0;
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            DescriptorStore store = new DescriptorStore(raf, type, cols, blockRows, create);
+            if (store.mType != type || store.mCols != cols) {
+                store.close();
+                throw new IOException("The store holds " + store.mCols + " columns of type "
+                        + CvType.typeToString(store.mType) + ", requested " + cols + " of " + CvType.typeToString(type));
+            }
+            return store;
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing store with the type and length it was created with
+     */
+    public static DescriptorStore open(File file) throws IOException {
+        if (!file.exists())
+            throw new IOException("No descriptor store " + file);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            return new DescriptorStore(raf, 0, 0, 0, false);
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    private Block mapBlock(int index) throws IOException {
+        MappedByteBuffer buffer = mChannel.map(FileChannel.MapMode.READ_WRITE,
+                HEADER_SIZE + index * mBlockBytes, mBlockBytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        Block block = new Block(buffer, new Mat(mBlockRows, mCols, mType, buffer));
+        mBlocks.add(block);
+        return block;
+    }
+
+    /**
+     * Appends the descriptor rows with the same label, the file grows by whole blocks
+     */
+    public synchronized void append(Mat descriptors, int label) throws IOException {
+        if (descriptors.empty())
+            return;
+        if (descriptors.type() != mType || descriptors.cols() != mCols)
+            throw new IllegalArgumentException("Expected descriptors of " + mCols + " columns of type "
+                    + CvType.typeToString(mType) + ": " + descriptors);
+        int count = descriptors.rows();
+        int done = 0;
+        while (done < count) {
+            int index = mRows / mBlockRows;
+            int row = mRows % mBlockRows;
+            Block block = index < mBlocks.size() ? mBlocks.get(index) : mapBlock(index);
+            int n = Math.min(count - done, mBlockRows - row);
+            Mat src = descriptors.rowRange(done, done + n);
+            Mat dst = block.mat.rowRange(row, row + n);
+            /* dst has the size and type of src, copyTo() writes into the mapping */
+            src.copyTo(dst);
+            src.close();
+            dst.close();
+            int labels = mBlockRows * mRowBytes;
+            for (int i = 0; i < n; i++)
+                block.buffer.putInt(labels + 4 * (row + i), label);
+            mRows += n;
+            done += n;
+        }
+        mHeader.putInt(OFFSET_ROWS, mRows);
+    }
+
+    /**
+     * Writes the mapped changes to the storage device
+     */
+    public synchronized void flush() {
+        for (Block block : mBlocks)
+            block.buffer.force();
+        mHeader.force();
+    }
+
+    public synchronized int rows() {
+        return mRows;
+    }
+
+    public int cols() {
+        return mCols;
+    }
+
+    public int type() {
+        return mType;
+    }
+
+    public int blockRows() {
+        return mBlockRows;
+    }
+
+    public synchronized int blockCount() {
+        return mBlocks.size();
+    }
+
+    /**
+     * Returns the label of the row
+     */
+    public synchronized int label(int row) {
+        if (row < 0 || row >= mRows)
+            throw new IndexOutOfBoundsException("Row " + row + " of " + mRows);
+        return mBlocks.get(row / mBlockRows).buffer.getInt(mBlockRows * mRowBytes + 4 * (row % mBlockRows));
+    }
+
+    /**
+     * Returns a new header over the valid rows of the block, the caller shall release it
+     */
+    public synchronized Mat block(int index) {
+        int rows = Math.min(mBlockRows, mRows - index * mBlockRows);
+        return mBlocks.get(index).mat.rowRange(0, rows);
+    }
+
+    /**
+     * Returns new headers over all the blocks, the block index is the imgIdx of the matches when
+     * the list is added to a DescriptorMatcher, see row()
+     */
+    public synchronized List<Mat> blocks() {
+        List<Mat> blocks = new ArrayList<Mat>(mBlocks.size());
+        for (int i = 0; i < mBlocks.size(); i++)
+            blocks.add(block(i));
+        return blocks;
+    }
+
+    /**
+     * Adds all the stored descriptors as the train collection of the matcher, no data is copied
+     * by BFMatcher. The matches are mapped back to the store rows with row().
+     */
+    public void addTo(DescriptorMatcher matcher) {
+        List<Mat> blocks = blocks();
+        matcher.add(blocks);
+        for (Mat block : blocks)
+            block.close();
+    }
+
+    /**
+     * Returns the store row of a match against the collection added by addTo()
+     */
+    public int row(int imgIdx, int trainIdx) {
+        return imgIdx * mBlockRows + trainIdx;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Block block : mBlocks)
+            block.mat.close();
+        mBlocks.clear();
+        /* the mappings are released by the GC, the file stays valid until then */
+        mChannel.close();
+        mFile.close();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "DescriptorStore [ rows=" + mRows + ", cols=" + mCols + ", type=" + CvType.typeToString(mType)
+                + ", blocks=" + mBlocks.size() + " ]";
+    }
+}
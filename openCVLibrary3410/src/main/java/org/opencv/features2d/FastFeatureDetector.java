@@ -3,6 +3,7 @@
 //
 package org.opencv.features2d;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.features2d.FastFeatureDetector;
 import org.opencv.features2d.Feature2D;
 
@@ -112,8 +113,8 @@ public class FastFeatureDetector extends Feature2D {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -145,7 +146,14 @@ public class FastFeatureDetector extends Feature2D {
     // C++:  void cv::FastFeatureDetector::setType(int type)
     private static native void setType_0(long nativeObj, int type);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            FastFeatureDetector.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfKeyPoint;
+import org.opencv.core.NativeCleaner;
 import org.opencv.features2d.FeatureDetector;
 import org.opencv.utils.Converters;
 
@@ -15,10 +16,15 @@ import org.opencv.utils.Converters;
  * @deprecated Please use direct instantiation of Feature2D classes
  */
 @Deprecated
-public class FeatureDetector {
+public class FeatureDetector implements AutoCloseable {
 
     protected final long nativeObj;
-    protected FeatureDetector(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected FeatureDetector(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -164,9 +170,21 @@ public class FeatureDetector {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -191,7 +209,14 @@ public class FeatureDetector {
     // C++:  void cv::javaFeatureDetector::write(String fileName)
     private static native void write_0(long nativeObj, String fileName);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            FeatureDetector.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -0,0 +1,180 @@
+package org.opencv.features2d;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfKeyPoint;
+
+/**
+ * This class extracts keypoints and descriptors from a stream of images on a pool of worker threads.
+ * Feature2D instances are not thread safe, so every worker creates its own detector with the factory
+ * and keeps it for its lifetime. The images are submitted one by one and the results are delivered
+ * as soon as each image is done, so decoding the next images on the caller thread overlaps the
+ * extraction of the previous ones.
+ * The memory bound limits the bytes of the submitted images which are not processed yet,
+ * submit() blocks while the bound is reached.
+ */
+public class FeatureExtractor {
+
+    private static final String TAG = "FeatureExtractor";
+    private static final int PERMIT_BYTES = 1024;
+
+    public interface DetectorFactory {
+        /**
+         * Creates the detector of a worker, called once on every worker thread, e.g. ORB.create()
+         */
+        public Feature2D create();
+    }
+
+    public interface Listener {
+        /**
+         * Called on a worker thread when the image is processed, the listener owns the keypoints and
+         * the descriptors and shall release them. The next image of the worker waits for the return.
+         */
+        public void onFeatures(Object tag, MatOfKeyPoint keypoints, Mat descriptors);
+
+        /**
+         * Called on a worker thread when the extraction failed
+         */
+        public void onError(Object tag, RuntimeException e);
+    }
+
+    private final DetectorFactory mFactory;
+    private final Listener mListener;
+    private final ThreadPoolExecutor mExecutor;
+    private final Semaphore mMemory;
+    private final int mMaxPermits;
+    private final ThreadLocal<Feature2D> mDetector = new ThreadLocal<Feature2D>() {
+        @Override
+        protected Feature2D initialValue() {
+            return mFactory.create();
+        }
+    };
+
+    /**
+     * @param parallelism - the number of worker threads, i.e. of detector instances
+     * @param maxPendingBytes - the maximal size of the submitted and not yet processed images
+     */
+    public FeatureExtractor(DetectorFactory factory, Listener listener, int parallelism, long maxPendingBytes) {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        mFactory = factory;
+        mListener = listener;
+        mMaxPermits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxPendingBytes / PERMIT_BYTES));
+        mMemory = new Semaphore(mMaxPermits);
+        final AtomicInteger threadCount = new AtomicInteger();
+        mExecutor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return new Thread(r, TAG + "-" + threadCount.incrementAndGet());
+                    }
+                });
+    }
+
+    public FeatureExtractor(DetectorFactory factory, Listener listener, long maxPendingBytes) {
+        this(factory, listener, Runtime.getRuntime().availableProcessors(), maxPendingBytes);
+    }
+
+    /**
+     * Queues the image for extraction, blocking while the memory bound is reached.
+     * The extractor takes the ownership of the image and closes it when it is processed.
+     * @param tag - passed to the listener to identify the image
+     */
+    public void submit(Object tag, Mat image) throws InterruptedException {
+        long bytes = image.total() * image.elemSize();
+        /* an image larger than the bound is processed alone */
+        int permits = (int) Math.min(mMaxPermits, Math.max(1, bytes / PERMIT_BYTES));
+        mMemory.acquire(permits);
+        try {
+            mExecutor.execute(new Task(tag, image, permits));
+        } catch (RuntimeException e) {
+            mMemory.release(permits);
+            throw e;
+        }
+    }
+
+    private class Task implements Runnable {
+        final Object tag;
+        final Mat image;
+        final int permits;
+
+        Task(Object tag, Mat image, int permits) {
+            this.tag = tag;
+            this.image = image;
+            this.permits = permits;
+        }
+
+        @Override
+        public void run() {
+            try {
+                extract(tag, image);
+            } finally {
+                discard();
+            }
+        }
+
+        void discard() {
+            image.close();
+            mMemory.release(permits);
+        }
+    }
+
+    /**
+     * Submits all the images, see submit()
+     * @param tags - the tags of the images, the image indices are used if it is null
+     */
+    public void submitAll(List<Mat> images, List<?> tags) throws InterruptedException {
+        for (int i = 0; i < images.size(); i++)
+            submit(tags != null ? tags.get(i) : Integer.valueOf(i), images.get(i));
+    }
+
+    private void extract(Object tag, Mat image) {
+        MatOfKeyPoint keypoints = new MatOfKeyPoint();
+        Mat descriptors = new Mat();
+        Mat mask = new Mat();
+        try {
+            mDetector.get().detectAndCompute(image, mask, keypoints, descriptors);
+        } catch (RuntimeException e) {
+            keypoints.release();
+            descriptors.release();
+            mListener.onError(tag, e);
+            return;
+        } finally {
+            mask.release();
+        }
+        mListener.onFeatures(tag, keypoints, descriptors);
+    }
+
+    /**
+     * Returns the number of submitted images which are not processed yet
+     */
+    public int getPendingCount() {
+        return mExecutor.getQueue().size() + mExecutor.getActiveCount();
+    }
+
+    /**
+     * Stops accepting images, the submitted ones are still processed
+     */
+    public void shutdown() {
+        mExecutor.shutdown();
+    }
+
+    /**
+     * Stops accepting images and drops the queued ones, their images are released
+     */
+    public void shutdownNow() {
+        for (Runnable r : mExecutor.shutdownNow())
+            ((Task) r).discard();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return mExecutor.awaitTermination(timeout, unit);
+    }
+}
@@ -3,6 +3,7 @@
 //
 package org.opencv.features2d;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.features2d.DescriptorMatcher;
 import org.opencv.features2d.FlannBasedMatcher;
 
@@ -41,8 +42,8 @@ public class FlannBasedMatcher extends DescriptorMatcher {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -53,7 +54,14 @@ public class FlannBasedMatcher extends DescriptorMatcher {
     // C++: static Ptr_FlannBasedMatcher cv::FlannBasedMatcher::create()
     private static native long create_0();
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            FlannBasedMatcher.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
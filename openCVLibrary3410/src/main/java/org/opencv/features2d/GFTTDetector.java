@@ -3,6 +3,7 @@
 //
 package org.opencv.features2d;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.features2d.Feature2D;
 import org.opencv.features2d.GFTTDetector;
 
@@ -185,8 +186,8 @@ public class GFTTDetector extends Feature2D {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -244,7 +245,14 @@ public class GFTTDetector extends Feature2D {
     // C++:  void cv::GFTTDetector::setQualityLevel(double qlevel)
     private static native void setQualityLevel_0(long nativeObj, double qlevel);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            GFTTDetector.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
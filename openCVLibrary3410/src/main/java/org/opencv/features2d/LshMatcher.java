@@ -0,0 +1,675 @@
+package org.opencv.features2d;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfDMatch;
+
+/**
+ * Multi-probe LSH matcher for binary descriptors (ORB, BRISK, AKAZE) implemented in Java.
+ * The train descriptors are packed into a long[] and compared with Long.bitCount(), every hash
+ * table keys the rows by a random subset of the descriptor bits. A query visits its own bucket of
+ * every table and, depending on the multi-probe level, the buckets whose key differs by one or two
+ * bits. The tables are sorted primitive arrays, no objects are created per descriptor.
+ * The methods follow DescriptorMatcher: the train collection is built with add(), the imgIdx of
+ * the matches is the index of the added Mat and trainIdx is the row in it. Queries are split
+ * across a thread pool. The index can be saved and loaded back without training.
+ * Rows added after train() or load() are merged into the sorted tables with the same key bits,
+ * the rows already indexed are neither hashed nor sorted again. update() keeps the matcher in sync
+ * with a DescriptorStore the descriptors are appended to.
+ * Attention: the whole index lives on the Java heap, also after load(), which copies the file
+ * into arrays. It takes 8 * ceil(bytes / 8) + 8 * tableCount bytes per descriptor, e.g. 64 MB for
+ * 500k ORB descriptors with 12 tables.
+ * add(), train() and clear() shall not be called concurrently with the matching methods.
+ */
+public class LshMatcher {
+
+    private static final int MAGIC = 0x48534c43; // "CLSH"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int MIN_PARALLEL_QUERIES = 64;
+
+    private final int mTableCount;
+    private final int mKeySize;
+    private final int mMultiProbeLevel;
+    private final long mSeed;
+    private final ThreadPoolExecutor mExecutor;
+    private final int mThreads;
+
+    private int mByteCols;
+    private int mWords;
+    private long[] mData = new long[0];
+    private int mRows;
+    private int[] mImageStarts = new int[0];
+    private int mImages;
+
+    private int[][] mBits;
+    private int[][] mKeys;
+    private int[][] mTableRows;
+    /* the rows covered by the tables, the rows after them are merged by the next train() */
+    private int mIndexedRows;
+    private boolean mTrained;
+
+    private final ThreadLocal<Searcher> mSearcher = new ThreadLocal<Searcher>() {
+        @Override
+        protected Searcher initialValue() {
+            return new Searcher();
+        }
+    };
+
+    /**
+     * Creates the matcher with the default parameters of the FLANN LSH index:
+     * 12 tables, 20 bit keys and multi-probe level 2
+     */
+    public LshMatcher() {
+        this(12, 20, 2);
+    }
+
+    public LshMatcher(int tableCount, int keySize, int multiProbeLevel) {
+        this(tableCount, keySize, multiProbeLevel, Runtime.getRuntime().availableProcessors(), 0x5eed);
+    }
+
+    /**
+     * @param tableCount - the number of hash tables, more tables find more true neighbours
+     * @param keySize - the number of bits of the hash keys, 1 to 30
+     * @param multiProbeLevel - 0 to visit only the query bucket, 1 or 2 to also visit the buckets
+     *                        at this Hamming distance from it
+     * @param threads - the number of threads matching the queries
+     * @param seed - the seed selecting the key bits
+     */
+    public LshMatcher(int tableCount, int keySize, int multiProbeLevel, int threads, long seed) {
+        if (tableCount <= 0)
+            throw new IllegalArgumentException("tableCount must be positive: " + tableCount);
+        if (keySize < 1 || keySize > 30)
+            throw new IllegalArgumentException("keySize must be within [1, 30]: " + keySize);
+        if (multiProbeLevel < 0 || multiProbeLevel > 2)
+            throw new IllegalArgumentException("multiProbeLevel must be within [0, 2]: " + multiProbeLevel);
+        mTableCount = tableCount;
+        mKeySize = keySize;
+        mMultiProbeLevel = multiProbeLevel;
+        mSeed = seed;
+        mThreads = Math.max(1, threads);
+        mExecutor = new ThreadPoolExecutor(mThreads, mThreads, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        mExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Adds the descriptors of the train images, every Mat is a CV_8UC1 set of descriptors of the
+     * same length. The index is rebuilt by the next train() or match call.
+     */
+    public void add(List<Mat> descriptors) {
+        for (Mat m : descriptors)
+            add(m);
+    }
+
+    public void add(Mat descriptors) {
+        append(descriptors, true);
+    }
+
+    /**
+     * @param newImage - false to append the rows to the last image
+     */
+    private void append(Mat descriptors, boolean newImage) {
+        int rows = descriptors.empty() ? 0 : descriptors.rows();
+        if (rows > 0) {
+            if (descriptors.type() != CvType.CV_8UC1)
+                throw new IllegalArgumentException("Binary CV_8UC1 descriptors are expected: " + descriptors);
+            if (mRows == 0) {
+                mByteCols = descriptors.cols();
+                mWords = (mByteCols + 7) / 8;
+            } else if (descriptors.cols() != mByteCols) {
+                throw new IllegalArgumentException("Expected descriptors of " + mByteCols + " bytes: " + descriptors);
+            }
+        }
+        if (newImage) {
+            if (mImages == mImageStarts.length)
+                mImageStarts = Arrays.copyOf(mImageStarts, Math.max(16, mImages * 2));
+            mImageStarts[mImages++] = mRows;
+        }
+        if ((long) (mRows + rows) * mWords > mData.length)
+            mData = Arrays.copyOf(mData, Math.max((mRows + rows) * mWords, mData.length * 3 / 2));
+        pack(descriptors, mData, mRows * mWords, mWords);
+        mRows += rows;
+        mTrained = false;
+    }
+
+    /**
+     * Adds the blocks of the store, the imgIdx and trainIdx of the matches are mapped to the store
+     * rows with DescriptorStore.row()
+     */
+    public void add(DescriptorStore store) {
+        List<Mat> blocks = store.blocks();
+        add(blocks);
+        for (Mat block : blocks)
+            block.close();
+    }
+
+    /**
+     * Adds the rows appended to the store since the last call, e.g. after DescriptorStore.append().
+     * The matcher shall only hold the rows of this store, added by add(DescriptorStore) or update(),
+     * so that the imgIdx of the matches stays the block index. The next match merges the new rows
+     * into the tables without rebuilding them.
+     */
+    public void update(DescriptorStore store) {
+        int blockRows = store.blockRows();
+        int storeRows = store.rows();
+        if (mRows > storeRows || (mImages > 0 && mImageStarts[mImages - 1] != (mImages - 1) * blockRows))
+            throw new IllegalStateException("The matcher doesn't hold the rows of " + store);
+        while (mRows < storeRows) {
+            int index = mRows / blockRows;
+            Mat block = store.block(index);
+            Mat rows = block.rowRange(mRows - index * blockRows, block.rows());
+            /* the rows of a block are one image, its first rows may be added already */
+            append(rows, index == mImages);
+            rows.close();
+            block.close();
+        }
+    }
+
+    public void clear() {
+        mData = new long[0];
+        mRows = 0;
+        mImageStarts = new int[0];
+        mImages = 0;
+        mBits = null;
+        mKeys = null;
+        mTableRows = null;
+        mIndexedRows = 0;
+        mTrained = false;
+    }
+
+    public boolean empty() {
+        return mRows == 0;
+    }
+
+    /**
+     * Returns the number of train descriptors
+     */
+    public int size() {
+        return mRows;
+    }
+
+    /**
+     * Builds the hash tables, or merges the rows added since the last build into them.
+     * The tables are built in parallel.
+     */
+    public void train() {
+        if (mTrained)
+            return;
+        if (mKeys == null || mIndexedRows == 0) {
+            selectBits();
+            mKeys = new int[mTableCount][];
+            mTableRows = new int[mTableCount][];
+            mIndexedRows = 0;
+        }
+        final int from = mIndexedRows;
+        List<Runnable> tasks = new ArrayList<Runnable>(mTableCount);
+        for (int t = 0; t < mTableCount; t++) {
+            final int table = t;
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    buildTable(table, from);
+                }
+            });
+        }
+        runAll(tasks);
+        mIndexedRows = mRows;
+        mTrained = true;
+    }
+
+    private void selectBits() {
+        Random random = new Random(mSeed);
+        int bitCount = mByteCols * 8;
+        int[] positions = new int[bitCount];
+        mBits = new int[mTableCount][Math.min(mKeySize, bitCount)];
+        for (int[] bits : mBits) {
+            for (int i = 0; i < bitCount; i++)
+                positions[i] = i;
+            /* partial Fisher-Yates shuffle, the key bits of a table are distinct */
+            for (int i = 0; i < bits.length; i++) {
+                int j = i + random.nextInt(bitCount - i);
+                int p = positions[j];
+                positions[j] = positions[i];
+                positions[i] = p;
+                bits[i] = p;
+            }
+        }
+    }
+
+    /**
+     * Sorts the rows from the given one by key and merges them into the table, which holds the
+     * rows before it sorted by key and row
+     */
+    private void buildTable(int table, int from) {
+        int[] bits = mBits[table];
+        int added = mRows - from;
+        long[] entries = new long[added];
+        for (int r = from; r < mRows; r++)
+            entries[r - from] = ((long) key(mData, r * mWords, bits) << 32) | r;
+        Arrays.sort(entries);
+        int[] oldKeys = mKeys[table];
+        int[] oldRows = mTableRows[table];
+        int[] keys = new int[mRows];
+        int[] rows = new int[mRows];
+        int i = 0;
+        int j = 0;
+        for (int n = 0; n < mRows; n++) {
+            /* the new rows follow the old ones, on equal keys the old entry comes first */
+            if (j == added || (i < from && oldKeys[i] <= (int) (entries[j] >>> 32))) {
+                keys[n] = oldKeys[i];
+                rows[n] = oldRows[i++];
+            } else {
+                keys[n] = (int) (entries[j] >>> 32);
+                rows[n] = (int) entries[j++];
+            }
+        }
+        mKeys[table] = keys;
+        mTableRows[table] = rows;
+    }
+
+    /**
+     * Finds the best match of every query descriptor, the queries without any candidate are skipped
+     */
+    public void match(Mat queryDescriptors, MatOfDMatch matches) {
+        List<MatOfDMatch> knn = new ArrayList<MatOfDMatch>();
+        knnMatch(queryDescriptors, knn, 1);
+        int count = 0;
+        for (MatOfDMatch m : knn)
+            count += (int) m.total();
+        float[] buff = new float[Math.max(1, count) * 4];
+        float[] best = new float[4];
+        int pos = 0;
+        for (MatOfDMatch m : knn) {
+            if (!m.empty()) {
+                m.get(0, 0, best);
+                System.arraycopy(best, 0, buff, pos, 4);
+                pos += 4;
+            }
+            m.release();
+        }
+        if (count == 0) {
+            matches.release();
+            return;
+        }
+        matches.alloc(count);
+        matches.put(0, 0, buff);
+    }
+
+    /**
+     * Finds the k nearest candidates of every query descriptor, sorted by increasing distance.
+     * matches.get(i) holds the matches of the query row i, it may have less than k elements.
+     */
+    public void knnMatch(Mat queryDescriptors, List<MatOfDMatch> matches, int k) {
+        search(queryDescriptors, matches, k, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the candidates of every query descriptor whose distance is less than maxDistance,
+     * sorted by increasing distance
+     */
+    public void radiusMatch(Mat queryDescriptors, List<MatOfDMatch> matches, float maxDistance) {
+        int radius = (int) Math.ceil(maxDistance) - 1;
+        search(queryDescriptors, matches, 0, radius);
+    }
+
+    /**
+     * @param k - the number of neighbours, 0 to keep all the candidates within the radius
+     */
+    private void search(Mat queryDescriptors, List<MatOfDMatch> matches, final int k, final int radius) {
+        if (k < 0)
+            throw new IllegalArgumentException("k must be positive: " + k);
+        train();
+        matches.clear();
+        final int queries = queryDescriptors.rows();
+        if (queries == 0)
+            return;
+        if (mRows > 0 && queryDescriptors.cols() != mByteCols)
+            throw new IllegalArgumentException("Expected descriptors of " + mByteCols + " bytes: " + queryDescriptors);
+        final long[] query = new long[queries * mWords];
+        pack(queryDescriptors, query, 0, mWords);
+        final MatOfDMatch[] result = new MatOfDMatch[queries];
+
+        int chunks = queries < MIN_PARALLEL_QUERIES ? 1 : Math.min(queries, mThreads * 4);
+        List<Runnable> tasks = new ArrayList<Runnable>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            final int from = (int) ((long) queries * c / chunks);
+            final int to = (int) ((long) queries * (c + 1) / chunks);
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    Searcher searcher = mSearcher.get();
+                    for (int q = from; q < to; q++)
+                        result[q] = searcher.search(query, q, k, radius);
+                }
+            });
+        }
+        runAll(tasks);
+        matches.addAll(Arrays.asList(result));
+    }
+
+    private void runAll(List<Runnable> tasks) {
+        if (tasks.size() == 1) {
+            tasks.get(0).run();
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<Future<?>>(tasks.size());
+        try {
+            for (Runnable task : tasks)
+                futures.add(mExecutor.submit(task));
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            for (Future<?> future : futures)
+                future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("LSH matching interrupted", e);
+        } catch (ExecutionException e) {
+            for (Future<?> future : futures)
+                future.cancel(true);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Per thread scratch memory of the queries
+     */
+    private class Searcher {
+        int[] seen = new int[0];
+        int stamp;
+        int[] rows = new int[16];
+        int[] dists = new int[16];
+        int count;
+
+        MatOfDMatch search(long[] query, int q, int k, int radius) {
+            if (seen.length < mRows) {
+                seen = new int[mRows];
+                stamp = 0;
+            }
+            if (++stamp == 0) {
+                Arrays.fill(seen, 0);
+                stamp = 1;
+            }
+            count = 0;
+            if (k > 0 && rows.length < k) {
+                rows = new int[k];
+                dists = new int[k];
+            }
+            int offset = q * mWords;
+            for (int t = 0; t < mTableCount && mRows > 0; t++) {
+                int key = key(query, offset, mBits[t]);
+                int bits = mBits[t].length;
+                probe(t, key, query, offset, k, radius);
+                if (mMultiProbeLevel >= 1) {
+                    for (int i = 0; i < bits; i++) {
+                        probe(t, key ^ (1 << i), query, offset, k, radius);
+                        if (mMultiProbeLevel >= 2) {
+                            for (int j = i + 1; j < bits; j++)
+                                probe(t, key ^ (1 << i) ^ (1 << j), query, offset, k, radius);
+                        }
+                    }
+                }
+            }
+            return toMat(q, k == 0);
+        }
+
+        private void probe(int table, int key, long[] query, int offset, int k, int radius) {
+            int[] keys = mKeys[table];
+            int[] tableRows = mTableRows[table];
+            for (int i = lowerBound(keys, key); i < keys.length && keys[i] == key; i++) {
+                int row = tableRows[i];
+                if (seen[row] == stamp)
+                    continue;
+                seen[row] = stamp;
+                int d = distance(query, offset, row * mWords);
+                if (d > radius)
+                    continue;
+                if (k > 0)
+                    offerTop(row, d, k);
+                else
+                    offerAll(row, d);
+            }
+        }
+
+        /**
+         * Keeps the k closest rows sorted by distance
+         */
+        private void offerTop(int row, int d, int k) {
+            if (count == k && d >= dists[k - 1])
+                return;
+            int i = count < k ? count++ : k - 1;
+            while (i > 0 && dists[i - 1] > d) {
+                dists[i] = dists[i - 1];
+                rows[i] = rows[i - 1];
+                i--;
+            }
+            dists[i] = d;
+            rows[i] = row;
+        }
+
+        private void offerAll(int row, int d) {
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+                dists = Arrays.copyOf(dists, count * 2);
+            }
+            rows[count] = row;
+            dists[count] = d;
+            count++;
+        }
+
+        private MatOfDMatch toMat(int q, boolean sort) {
+            MatOfDMatch mat = new MatOfDMatch();
+            if (count == 0)
+                return mat;
+            if (sort)
+                sortByDistance();
+            float[] buff = new float[count * 4];
+            for (int i = 0; i < count; i++) {
+                int img = imageOf(rows[i]);
+                buff[4 * i] = q;
+                buff[4 * i + 1] = rows[i] - mImageStarts[img];
+                buff[4 * i + 2] = img;
+                buff[4 * i + 3] = dists[i];
+            }
+            mat.alloc(count);
+            mat.put(0, 0, buff);
+            return mat;
+        }
+
+        /**
+         * Sorts the radius candidates, the top-k ones are kept sorted while they are collected
+         */
+        private void sortByDistance() {
+            long[] entries = new long[count];
+            for (int i = 0; i < count; i++)
+                entries[i] = ((long) dists[i] << 32) | rows[i];
+            Arrays.sort(entries);
+            for (int i = 0; i < count; i++) {
+                dists[i] = (int) (entries[i] >>> 32);
+                rows[i] = (int) entries[i];
+            }
+        }
+    }
+
+    private int imageOf(int row) {
+        int i = Arrays.binarySearch(mImageStarts, 0, mImages, row);
+        if (i < 0)
+            return -i - 2;
+        /* skip the empty images starting at the same row */
+        while (i + 1 < mImages && mImageStarts[i + 1] == row)
+            i++;
+        return i;
+    }
+
+    private int distance(long[] query, int queryOffset, int rowOffset) {
+        int d = 0;
+        for (int w = 0; w < mWords; w++)
+            d += Long.bitCount(query[queryOffset + w] ^ mData[rowOffset + w]);
+        return d;
+    }
+
+    private static int key(long[] data, int offset, int[] bits) {
+        int key = 0;
+        for (int j = 0; j < bits.length; j++) {
+            int p = bits[j];
+            key |= (int) ((data[offset + (p >>> 6)] >>> (p & 63)) & 1L) << j;
+        }
+        return key;
+    }
+
+    private static int lowerBound(int[] keys, int key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Packs the CV_8UC1 descriptor rows into little endian longs, the last word of a row is zero padded
+     */
+    private static void pack(Mat descriptors, long[] dst, int offset, int words) {
+        int rows = descriptors.rows();
+        int cols = descriptors.cols();
+        if (rows == 0)
+            return;
+        byte[] buff = new byte[rows * cols];
+        descriptors.get(0, 0, buff);
+        for (int r = 0; r < rows; r++) {
+            int row = offset + r * words;
+            Arrays.fill(dst, row, row + words, 0L);
+            for (int b = 0; b < cols; b++)
+                dst[row + (b >>> 3)] |= (buff[r * cols + b] & 0xffL) << ((b & 7) << 3);
+        }
+    }
+
+    /**
+     * Writes the descriptors and the hash tables, the file is replaced
+     */
+    public void save(File file) throws IOException {
+        train();
+        long size = HEADER_SIZE + 8L * mRows * mWords + 4L * mImages + 4L * mTableCount * mBits[0].length
+                + 8L * mTableCount * mRows;
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Index of " + size + " bytes is too large");
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(size);
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(mByteCols).putInt(mTableCount)
+                    .putInt(mKeySize).putInt(mMultiProbeLevel).putInt(mRows).putInt(mImages);
+            buffer.position(HEADER_SIZE);
+            view(buffer).asLongBuffer().put(mData, 0, mRows * mWords);
+            buffer.position(buffer.position() + 8 * mRows * mWords);
+            putInts(buffer, mImageStarts, mImages);
+            for (int[] bits : mBits)
+                putInts(buffer, bits, bits.length);
+            for (int t = 0; t < mTableCount; t++) {
+                putInts(buffer, mKeys[t], mRows);
+                putInts(buffer, mTableRows[t], mRows);
+            }
+            buffer.force();
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Loads an index written by save(), it is ready for matching without training.
+     * The descriptors and the tables are copied from the file into heap arrays, the searches run
+     * on plain arrays only. Loading saves the training time, not the memory of the index.
+     * @param threads - the number of threads matching the queries
+     */
+    public static LshMatcher load(File file, int threads) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not an LSH index: " + file);
+            int version = buffer.getInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported LSH index version " + version);
+            int byteCols = buffer.getInt();
+            int tableCount = buffer.getInt();
+            int keySize = buffer.getInt();
+            int multiProbeLevel = buffer.getInt();
+            int rows = buffer.getInt();
+            int images = buffer.getInt();
+
+            LshMatcher matcher = new LshMatcher(tableCount, keySize, multiProbeLevel, threads, 0);
+            matcher.mByteCols = byteCols;
+            matcher.mWords = (byteCols + 7) / 8;
+            matcher.mRows = rows;
+            matcher.mImages = images;
+            buffer.position(HEADER_SIZE);
+            matcher.mData = new long[rows * matcher.mWords];
+            view(buffer).asLongBuffer().get(matcher.mData);
+            buffer.position(buffer.position() + 8 * matcher.mData.length);
+            matcher.mImageStarts = getInts(buffer, images);
+            matcher.mBits = new int[tableCount][];
+            for (int t = 0; t < tableCount; t++)
+                matcher.mBits[t] = getInts(buffer, Math.min(keySize, byteCols * 8));
+            matcher.mKeys = new int[tableCount][];
+            matcher.mTableRows = new int[tableCount][];
+            for (int t = 0; t < tableCount; t++) {
+                matcher.mKeys[t] = getInts(buffer, rows);
+                matcher.mTableRows[t] = getInts(buffer, rows);
+            }
+            matcher.mIndexedRows = rows;
+            matcher.mTrained = true;
+            return matcher;
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static ByteBuffer view(ByteBuffer buffer) {
+        return buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values, int count) {
+        view(buffer).asIntBuffer().put(values, 0, count);
+        buffer.position(buffer.position() + 4 * count);
+    }
+
+    private static int[] getInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        view(buffer).asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * count);
+        return values;
+    }
+
+    /**
+     * Stops the matching threads, the matcher shall not be used anymore
+     */
+    public void release() {
+        mExecutor.shutdown();
+    }
+}
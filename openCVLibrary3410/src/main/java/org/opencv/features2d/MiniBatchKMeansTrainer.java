@@ -0,0 +1,449 @@
+package org.opencv.features2d;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+/**
+ * Mini-batch k-means vocabulary trainer, an alternative to BOWKMeansTrainer.cluster() for
+ * descriptor sets which don't fit into memory. The descriptors are streamed in batches: every batch
+ * is assigned to the nearest centers in parallel and each center moves towards the mean of its
+ * points with a per-center learning rate of 1 / (points seen by the center), as in Sculley,
+ * "Web-scale k-means clustering". The centers are seeded with k-means++ on the first rows.
+ * Only the current batch and the centers are kept in memory. The centers can be checkpointed to a
+ * file and restored to resume a training. The result of vocabulary() is accepted by
+ * BOWImgDescriptorExtractor.setVocabulary(). The descriptors are converted to CV_32F.
+ * The class is thread safe, e.g. add() can be called from a FeatureExtractor listener.
+ */
+public class MiniBatchKMeansTrainer {
+
+    private static final int MAGIC = 0x4d4b4243; // "CBKM"
+    private static final int VERSION = 1;
+
+    public interface BatchSource {
+        /**
+         * Returns the next descriptors, one per row, or null when there are no more
+         */
+        public Mat next() throws IOException;
+    }
+
+    public interface ProgressListener {
+        /**
+         * Called after every batch update
+         * @param inertia - the mean squared distance of the batch points to their centers
+         */
+        public void onBatch(int batches, long samples, double inertia);
+    }
+
+    private final int mClusterCount;
+    private final int mBatchSize;
+    private final ThreadPoolExecutor mExecutor;
+    private final int mThreads;
+    private final Random mRandom;
+
+    private int mDims = -1;
+    private float[] mCenters;
+    private long[] mCounts;
+    private boolean mSeeded;
+    private int mBatches;
+    private long mSamples;
+
+    private float[] mBatch = new float[0];
+    private int mBatchRows;
+    private int[] mLabels = new int[0];
+    private float[] mDistances = new float[0];
+
+    private ProgressListener mListener;
+    private File mCheckpointFile;
+    private int mCheckpointInterval;
+
+    /**
+     * @param clusterCount - the vocabulary size
+     * @param batchSize - the number of descriptors per update, at least clusterCount rows are
+     *                  collected before the seeding
+     */
+    public MiniBatchKMeansTrainer(int clusterCount, int batchSize) {
+        this(clusterCount, batchSize, Runtime.getRuntime().availableProcessors(), 0x5eed);
+    }
+
+    public MiniBatchKMeansTrainer(int clusterCount, int batchSize, int threads, long seed) {
+        if (clusterCount <= 0)
+            throw new IllegalArgumentException("clusterCount must be positive: " + clusterCount);
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        mClusterCount = clusterCount;
+        mBatchSize = Math.max(batchSize, clusterCount);
+        mThreads = Math.max(1, threads);
+        mRandom = new Random(seed);
+        mExecutor = new ThreadPoolExecutor(mThreads, mThreads, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        mExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns a source reading the rows of the store in order, in slices of at most batchRows rows.
+     * The returned Mats point into the mapping of the store.
+     */
+    public static BatchSource storeSource(final DescriptorStore store, final int batchRows) {
+        return new BatchSource() {
+            private int mRow;
+
+            @Override
+            public Mat next() {
+                int rows = store.rows();
+                if (mRow >= rows)
+                    return null;
+                int index = mRow / store.blockRows();
+                int start = mRow - index * store.blockRows();
+                Mat block = store.block(index);
+                try {
+                    int end = Math.min(block.rows(), start + batchRows);
+                    mRow += end - start;
+                    return block.rowRange(start, end);
+                } finally {
+                    block.close();
+                }
+            }
+        };
+    }
+
+    public synchronized void setProgressListener(ProgressListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Writes the centers to the file every interval batches, see restore()
+     */
+    public synchronized void setCheckpoint(File file, int interval) {
+        mCheckpointFile = file;
+        mCheckpointInterval = interval;
+    }
+
+    /**
+     * Buffers the descriptors and runs an update for every complete batch
+     */
+    public synchronized void add(Mat descriptors) throws IOException {
+        if (descriptors.empty())
+            return;
+        int rows = descriptors.rows();
+        int cols = descriptors.cols() * descriptors.channels();
+        if (mDims < 0)
+            mDims = cols;
+        else if (cols != mDims)
+            throw new IllegalArgumentException("Expected descriptors of " + mDims + " values: " + descriptors);
+
+        Mat values = descriptors;
+        if (descriptors.depth() != CvType.CV_32F) {
+            values = new Mat();
+            descriptors.convertTo(values, CvType.CV_32F);
+        }
+        float[] buff = new float[rows * mDims];
+        values.get(0, 0, buff);
+        if (values != descriptors)
+            values.release();
+
+        int row = 0;
+        while (row < rows) {
+            int n = Math.min(rows - row, mBatchSize - mBatchRows);
+            if (mBatch.length < mBatchSize * mDims)
+                mBatch = new float[mBatchSize * mDims];
+            System.arraycopy(buff, row * mDims, mBatch, mBatchRows * mDims, n * mDims);
+            mBatchRows += n;
+            row += n;
+            if (mBatchRows == mBatchSize)
+                flush();
+        }
+    }
+
+    /**
+     * Pulls batches from the source until it is exhausted or maxBatches updates were done
+     * @return the number of batch updates done
+     */
+    public int train(BatchSource source, int maxBatches) throws IOException {
+        int start = getBatchCount();
+        while (getBatchCount() - start < maxBatches) {
+            Mat batch = source.next();
+            if (batch == null)
+                break;
+            try {
+                add(batch);
+            } finally {
+                batch.release();
+            }
+        }
+        return getBatchCount() - start;
+    }
+
+    /**
+     * Runs an update with the buffered descriptors even if the batch is not complete
+     */
+    public synchronized void flush() throws IOException {
+        if (mBatchRows == 0)
+            return;
+        if (!mSeeded) {
+            /* k-means++ needs at least one point per cluster */
+            if (mBatchRows < mClusterCount)
+                return;
+            seed();
+        }
+        update();
+        mBatchRows = 0;
+        mBatches++;
+        if (mCheckpointFile != null && mCheckpointInterval > 0 && mBatches % mCheckpointInterval == 0)
+            checkpoint(mCheckpointFile);
+    }
+
+    /**
+     * Chooses the initial centers among the buffered rows with k-means++
+     */
+    private void seed() {
+        int n = mBatchRows;
+        mCenters = new float[mClusterCount * mDims];
+        mCounts = new long[mClusterCount];
+        float[] closest = new float[n];
+        int first = mRandom.nextInt(n);
+        System.arraycopy(mBatch, first * mDims, mCenters, 0, mDims);
+        for (int i = 0; i < n; i++)
+            closest[i] = distance(mBatch, i * mDims, mCenters, 0);
+        for (int c = 1; c < mClusterCount; c++) {
+            double sum = 0;
+            for (int i = 0; i < n; i++)
+                sum += closest[i];
+            double r = mRandom.nextDouble() * sum;
+            int pick = n - 1;
+            for (int i = 0; i < n; i++) {
+                r -= closest[i];
+                if (r <= 0) {
+                    pick = i;
+                    break;
+                }
+            }
+            System.arraycopy(mBatch, pick * mDims, mCenters, c * mDims, mDims);
+            for (int i = 0; i < n; i++)
+                closest[i] = Math.min(closest[i], distance(mBatch, i * mDims, mCenters, c * mDims));
+        }
+        mSeeded = true;
+    }
+
+    private void update() {
+        final int n = mBatchRows;
+        if (mLabels.length < n) {
+            mLabels = new int[mBatchSize];
+            mDistances = new float[mBatchSize];
+        }
+
+        /* assign the points in parallel, the centers are read only meanwhile */
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        int chunks = Math.min(n, mThreads * 4);
+        for (int c = 0; c < chunks; c++) {
+            final int from = (int) ((long) n * c / chunks);
+            final int to = (int) ((long) n * (c + 1) / chunks);
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    assign(from, to);
+                }
+            });
+        }
+        runAll(tasks);
+
+        /* move every center to the running mean of its points, the centers are split across threads */
+        tasks.clear();
+        chunks = Math.min(mClusterCount, mThreads);
+        for (int c = 0; c < chunks; c++) {
+            final int from = (int) ((long) mClusterCount * c / chunks);
+            final int to = (int) ((long) mClusterCount * (c + 1) / chunks);
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    moveCenters(from, to, n);
+                }
+            });
+        }
+        runAll(tasks);
+
+        double inertia = 0;
+        for (int i = 0; i < n; i++)
+            inertia += mDistances[i];
+        mSamples += n;
+        if (mListener != null)
+            mListener.onBatch(mBatches + 1, mSamples, inertia / n);
+    }
+
+    private void assign(int from, int to) {
+        for (int i = from; i < to; i++) {
+            int best = 0;
+            float bestDistance = Float.MAX_VALUE;
+            for (int c = 0; c < mClusterCount; c++) {
+                float d = distance(mBatch, i * mDims, mCenters, c * mDims, bestDistance);
+                if (d < bestDistance) {
+                    bestDistance = d;
+                    best = c;
+                }
+            }
+            mLabels[i] = best;
+            mDistances[i] = bestDistance;
+        }
+    }
+
+    private void moveCenters(int from, int to, int n) {
+        for (int i = 0; i < n; i++) {
+            int c = mLabels[i];
+            if (c < from || c >= to)
+                continue;
+            float eta = 1f / ++mCounts[c];
+            int center = c * mDims;
+            int point = i * mDims;
+            for (int d = 0; d < mDims; d++)
+                mCenters[center + d] += eta * (mBatch[point + d] - mCenters[center + d]);
+        }
+    }
+
+    private float distance(float[] a, int aOffset, float[] b, int bOffset) {
+        return distance(a, aOffset, b, bOffset, Float.MAX_VALUE);
+    }
+
+    /**
+     * Returns the squared L2 distance, the sum stops once it exceeds the bound
+     */
+    private float distance(float[] a, int aOffset, float[] b, int bOffset, float bound) {
+        float sum = 0;
+        for (int d = 0; d < mDims; d++) {
+            float diff = a[aOffset + d] - b[bOffset + d];
+            sum += diff * diff;
+            if (sum >= bound)
+                break;
+        }
+        return sum;
+    }
+
+    private void runAll(List<Runnable> tasks) {
+        if (tasks.size() == 1) {
+            tasks.get(0).run();
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<Future<?>>(tasks.size());
+        try {
+            for (Runnable task : tasks)
+                futures.add(mExecutor.submit(task));
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            for (Future<?> future : futures)
+                future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Vocabulary training interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    public synchronized int getBatchCount() {
+        return mBatches;
+    }
+
+    public synchronized long getSampleCount() {
+        return mSamples;
+    }
+
+    /**
+     * Returns the clusterCount x dims CV_32F centers, or an empty Mat if no batch was processed
+     */
+    public synchronized Mat vocabulary() {
+        Mat vocabulary = new Mat();
+        if (!mSeeded)
+            return vocabulary;
+        vocabulary.create(mClusterCount, mDims, CvType.CV_32F);
+        vocabulary.put(0, 0, mCenters);
+        return vocabulary;
+    }
+
+    /**
+     * Writes the centers and their point counts, the file is replaced atomically
+     */
+    public synchronized void checkpoint(File file) throws IOException {
+        if (!mSeeded)
+            return;
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(mClusterCount);
+            out.writeInt(mDims);
+            out.writeInt(mBatches);
+            out.writeLong(mSamples);
+            for (long count : mCounts)
+                out.writeLong(count);
+            for (float value : mCenters)
+                out.writeFloat(value);
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            /* renameTo() doesn't replace an existing file on every platform */
+            file.delete();
+            if (!tmp.renameTo(file))
+                throw new IOException("Failed to write the checkpoint " + file);
+        }
+    }
+
+    /**
+     * Restores the centers written by checkpoint(), the training continues from them
+     */
+    public synchronized void restore(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC)
+                throw new IOException("Not a k-means checkpoint: " + file);
+            int version = in.readInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported checkpoint version " + version);
+            int clusterCount = in.readInt();
+            if (clusterCount != mClusterCount)
+                throw new IOException("The checkpoint has " + clusterCount + " clusters, expected " + mClusterCount);
+            int dims = in.readInt();
+            if (mDims >= 0 && dims != mDims)
+                throw new IOException("The checkpoint has " + dims + " dimensions, expected " + mDims);
+            mDims = dims;
+            mBatches = in.readInt();
+            mSamples = in.readLong();
+            mCounts = new long[clusterCount];
+            for (int c = 0; c < clusterCount; c++)
+                mCounts[c] = in.readLong();
+            mCenters = new float[clusterCount * dims];
+            for (int i = 0; i < mCenters.length; i++)
+                mCenters[i] = in.readFloat();
+            mSeeded = true;
+            mBatchRows = 0;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Stops the training threads, the trainer shall not be used anymore
+     */
+    public void release() {
+        mExecutor.shutdown();
+    }
+}
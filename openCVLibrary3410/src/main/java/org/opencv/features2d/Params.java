@@ -3,14 +3,21 @@
 //
 package org.opencv.features2d;
 
+import org.opencv.core.NativeCleaner;
+
 
 
 // C++: class Params
 
-public class Params {
+public class Params implements AutoCloseable {
 
     protected final long nativeObj;
-    protected Params(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected Params(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -23,6 +30,7 @@ public class Params {
 
     public Params() {
         nativeObj = Params_0();
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -364,9 +372,21 @@ public class Params {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -482,7 +502,14 @@ public class Params {
     // C++: void Params::maxConvexity
     private static native void set_maxConvexity_0(long nativeObj, float maxConvexity);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            Params.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -0,0 +1,330 @@
+package org.opencv.features2d;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfDMatch;
+
+/**
+ * This class splits a large train collection into shards, each of them held by a copy of a
+ * DescriptorMatcher, and queries the shards concurrently. The train rows are distributed evenly,
+ * an image is split between shards when needed. The per-shard results are merged so that imgIdx
+ * and trainIdx refer to the collection passed to add(), as with a single matcher.
+ * The native matching runs outside of the Java locks, so the latency decreases with the number
+ * of cores up to the number of shards.
+ */
+public class ShardedMatcher {
+
+    private static final int CHANNELS = 4;
+
+    private final DescriptorMatcher[] mShards;
+    private final ThreadPoolExecutor mExecutor;
+    private final List<Mat> mTrain = new ArrayList<Mat>();
+    private final List<Mat> mPieces = new ArrayList<Mat>();
+
+    /* the image and the first row of every local train image of every shard */
+    private int[][] mPieceImage;
+    private int[][] mPieceOffset;
+    private boolean mTrained;
+
+    /**
+     * @param prototype - the matcher to copy, e.g. BFMatcher.create(Core.NORM_HAMMING, false),
+     *                  its train data is not used
+     * @param shards - the number of shards and of matching threads
+     */
+    public ShardedMatcher(DescriptorMatcher prototype, int shards) {
+        if (shards <= 0)
+            throw new IllegalArgumentException("shards must be positive: " + shards);
+        mShards = new DescriptorMatcher[shards];
+        for (int i = 0; i < shards; i++)
+            mShards[i] = prototype.clone(true);
+        mExecutor = new ThreadPoolExecutor(shards, shards, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        mExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public ShardedMatcher(DescriptorMatcher prototype) {
+        this(prototype, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Adds the descriptors of the train images, they are distributed by the next train() or match
+     * call. The Mats are referenced and shall not be modified.
+     */
+    public void add(List<Mat> descriptors) {
+        mTrain.addAll(descriptors);
+        mTrained = false;
+    }
+
+    public void clear() {
+        mTrain.clear();
+        clearShards();
+        mTrained = false;
+    }
+
+    public boolean empty() {
+        return mTrain.isEmpty();
+    }
+
+    private void clearShards() {
+        for (DescriptorMatcher shard : mShards)
+            shard.clear();
+        for (Mat piece : mPieces)
+            piece.release();
+        mPieces.clear();
+    }
+
+    /**
+     * Distributes the train rows to the shards and trains them concurrently
+     */
+    public void train() {
+        if (mTrained)
+            return;
+        clearShards();
+        int shards = mShards.length;
+        long total = 0;
+        for (Mat m : mTrain)
+            total += m.rows();
+        long target = Math.max(1, (total + shards - 1) / shards);
+
+        List<List<Mat>> shardPieces = new ArrayList<List<Mat>>(shards);
+        int[][] images = new int[shards][];
+        int[][] offsets = new int[shards][];
+        for (int s = 0; s < shards; s++) {
+            shardPieces.add(new ArrayList<Mat>());
+            images[s] = new int[0];
+            offsets[s] = new int[0];
+        }
+        int shard = 0;
+        long filled = 0;
+        for (int img = 0; img < mTrain.size(); img++) {
+            Mat m = mTrain.get(img);
+            int rows = m.rows();
+            int row = 0;
+            if (rows == 0)
+                continue;
+            do {
+                if (filled >= target && shard < shards - 1) {
+                    shard++;
+                    filled = 0;
+                }
+                int n = (int) Math.min(rows - row, target - filled);
+                if (shard == shards - 1)
+                    n = rows - row;
+                Mat piece = row == 0 && n == rows ? m : m.rowRange(row, row + n);
+                if (piece != m)
+                    mPieces.add(piece);
+                shardPieces.get(shard).add(piece);
+                images[shard] = append(images[shard], img);
+                offsets[shard] = append(offsets[shard], row);
+                row += n;
+                filled += n;
+            } while (row < rows);
+        }
+        mPieceImage = images;
+        mPieceOffset = offsets;
+
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(shards);
+        for (int s = 0; s < shards; s++) {
+            final DescriptorMatcher matcher = mShards[s];
+            final List<Mat> pieces = shardPieces.get(s);
+            tasks.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    if (!pieces.isEmpty()) {
+                        matcher.add(pieces);
+                        matcher.train();
+                    }
+                    return null;
+                }
+            });
+        }
+        invokeAll(tasks);
+        mTrained = true;
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = value;
+        return result;
+    }
+
+    /**
+     * Finds the best match of every query descriptor, the queries without a match are skipped
+     */
+    public void match(Mat queryDescriptors, MatOfDMatch matches) {
+        List<MatOfDMatch> knn = new ArrayList<MatOfDMatch>();
+        knnMatch(queryDescriptors, knn, 1);
+        int count = 0;
+        for (MatOfDMatch m : knn)
+            count += (int) m.total();
+        float[] buff = new float[Math.max(1, count) * CHANNELS];
+        float[] best = new float[CHANNELS];
+        int pos = 0;
+        for (MatOfDMatch m : knn) {
+            if (!m.empty()) {
+                m.get(0, 0, best);
+                System.arraycopy(best, 0, buff, pos, CHANNELS);
+                pos += CHANNELS;
+            }
+            m.release();
+        }
+        if (count == 0) {
+            matches.release();
+            return;
+        }
+        matches.alloc(count);
+        matches.put(0, 0, buff);
+    }
+
+    /**
+     * Finds the k best matches of every query descriptor over all the shards,
+     * matches.get(i) holds the matches of the query row i sorted by increasing distance
+     */
+    public void knnMatch(final Mat queryDescriptors, List<MatOfDMatch> matches, final int k) {
+        List<List<MatOfDMatch>> results = query(new ShardQuery() {
+            @Override
+            public void run(DescriptorMatcher shard, List<MatOfDMatch> result) {
+                shard.knnMatch(queryDescriptors, result, k);
+            }
+        });
+        merge(queryDescriptors.rows(), results, k, matches);
+    }
+
+    /**
+     * Finds the matches of every query descriptor whose distance is less than maxDistance over
+     * all the shards, sorted by increasing distance
+     */
+    public void radiusMatch(final Mat queryDescriptors, List<MatOfDMatch> matches, final float maxDistance) {
+        List<List<MatOfDMatch>> results = query(new ShardQuery() {
+            @Override
+            public void run(DescriptorMatcher shard, List<MatOfDMatch> result) {
+                shard.radiusMatch(queryDescriptors, result, maxDistance);
+            }
+        });
+        merge(queryDescriptors.rows(), results, Integer.MAX_VALUE, matches);
+    }
+
+    private interface ShardQuery {
+        void run(DescriptorMatcher shard, List<MatOfDMatch> result);
+    }
+
+    private List<List<MatOfDMatch>> query(final ShardQuery query) {
+        train();
+        List<List<MatOfDMatch>> results = new ArrayList<List<MatOfDMatch>>(mShards.length);
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(mShards.length);
+        for (int s = 0; s < mShards.length; s++) {
+            final DescriptorMatcher shard = mShards[s];
+            final List<MatOfDMatch> result = new ArrayList<MatOfDMatch>();
+            results.add(result);
+            if (mPieceImage[s].length == 0)
+                continue;
+            tasks.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    query.run(shard, result);
+                    return null;
+                }
+            });
+        }
+        invokeAll(tasks);
+        return results;
+    }
+
+    /**
+     * Merges the per-shard matches of every query into the global top-k
+     */
+    private void merge(int queries, List<List<MatOfDMatch>> results, int k, List<MatOfDMatch> matches) {
+        matches.clear();
+        int shards = results.size();
+        float[][] shardBuff = new float[shards][CHANNELS * 4];
+        int[] shardCount = new int[shards];
+        int[] shardPos = new int[shards];
+        float[] out = new float[CHANNELS * 4];
+        for (int q = 0; q < queries; q++) {
+            int total = 0;
+            for (int s = 0; s < shards; s++) {
+                List<MatOfDMatch> result = results.get(s);
+                MatOfDMatch m = q < result.size() ? result.get(q) : null;
+                int count = m == null ? 0 : (int) m.total();
+                if (count > 0) {
+                    if (shardBuff[s].length < count * CHANNELS)
+                        shardBuff[s] = new float[count * CHANNELS];
+                    m.get(0, 0, shardBuff[s]);
+                    remap(s, shardBuff[s], count);
+                }
+                shardCount[s] = count;
+                shardPos[s] = 0;
+                total += count;
+            }
+            /* every shard result is sorted, take the k smallest distances of their heads */
+            int n = Math.min(total, k);
+            if (out.length < n * CHANNELS)
+                out = new float[n * CHANNELS];
+            for (int i = 0; i < n; i++) {
+                int best = -1;
+                for (int s = 0; s < shards; s++) {
+                    if (shardPos[s] < shardCount[s] && (best < 0 || shardBuff[s][shardPos[s] * CHANNELS + 3]
+                            < shardBuff[best][shardPos[best] * CHANNELS + 3]))
+                        best = s;
+                }
+                System.arraycopy(shardBuff[best], shardPos[best] * CHANNELS, out, i * CHANNELS, CHANNELS);
+                shardPos[best]++;
+            }
+            MatOfDMatch merged = new MatOfDMatch();
+            if (n > 0) {
+                merged.alloc(n);
+                merged.put(0, 0, out);
+            }
+            matches.add(merged);
+        }
+        for (List<MatOfDMatch> result : results) {
+            for (MatOfDMatch m : result)
+                m.release();
+        }
+    }
+
+    /**
+     * Converts the shard local imgIdx and trainIdx to the indices of the added collection
+     */
+    private void remap(int shard, float[] buff, int count) {
+        int[] images = mPieceImage[shard];
+        int[] offsets = mPieceOffset[shard];
+        for (int i = 0; i < count; i++) {
+            int local = (int) buff[i * CHANNELS + 2];
+            buff[i * CHANNELS + 1] += offsets[local];
+            buff[i * CHANNELS + 2] = images[local];
+        }
+    }
+
+    private void invokeAll(List<Callable<Object>> tasks) {
+        try {
+            for (Future<Object> future : mExecutor.invokeAll(tasks))
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Sharded matching interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Stops the matching threads and clears the shards, the matcher shall not be used anymore
+     */
+    public void release() {
+        clear();
+        mExecutor.shutdown();
+    }
+}
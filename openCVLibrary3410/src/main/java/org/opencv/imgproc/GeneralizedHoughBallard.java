@@ -3,6 +3,7 @@
 //
 package org.opencv.imgproc;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.imgproc.GeneralizedHough;
 
 // C++: class GeneralizedHoughBallard
@@ -55,8 +56,8 @@ public class GeneralizedHoughBallard extends GeneralizedHough {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -73,7 +74,14 @@ public class GeneralizedHoughBallard extends GeneralizedHough {
     // C++:  void cv::GeneralizedHoughBallard::setVotesThreshold(int votesThreshold)
     private static native void setVotesThreshold_0(long nativeObj, int votesThreshold);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            GeneralizedHoughBallard.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
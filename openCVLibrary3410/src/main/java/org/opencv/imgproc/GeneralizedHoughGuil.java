@@ -3,6 +3,7 @@
 //
 package org.opencv.imgproc;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.imgproc.GeneralizedHough;
 
 // C++: class GeneralizedHoughGuil
@@ -235,8 +236,8 @@ public class GeneralizedHoughGuil extends GeneralizedHough {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -313,7 +314,14 @@ public class GeneralizedHoughGuil extends GeneralizedHough {
     // C++:  void cv::GeneralizedHoughGuil::setXi(double xi)
     private static native void setXi_0(long nativeObj, double xi);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            GeneralizedHoughGuil.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -5,6 +5,7 @@ package org.opencv.imgproc;
 
 import org.opencv.core.Algorithm;
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.core.Size;
 
 // C++: class LineSegmentDetector
@@ -201,8 +202,8 @@ public class LineSegmentDetector extends Algorithm {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -220,7 +221,14 @@ public class LineSegmentDetector extends Algorithm {
     // C++:  void cv::LineSegmentDetector::drawSegments(Mat& _image, Mat lines)
     private static native void drawSegments_0(long nativeObj, long _image_nativeObj, long lines_nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            LineSegmentDetector.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -10,16 +10,22 @@ import org.opencv.core.MatOfFloat4;
 import org.opencv.core.MatOfFloat6;
 import org.opencv.core.MatOfInt;
 import org.opencv.core.MatOfPoint2f;
+import org.opencv.core.NativeCleaner;
 import org.opencv.core.Point;
 import org.opencv.core.Rect;
 import org.opencv.utils.Converters;
 
 // C++: class Subdiv2D
 
-public class Subdiv2D {
+public class Subdiv2D implements AutoCloseable {
 
     protected final long nativeObj;
-    protected Subdiv2D(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected Subdiv2D(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -58,6 +64,7 @@ public class Subdiv2D {
      */
     public Subdiv2D(Rect rect) {
         nativeObj = Subdiv2D_0(rect.x, rect.y, rect.width, rect.height);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -71,6 +78,7 @@ public class Subdiv2D {
      */
     public Subdiv2D() {
         nativeObj = Subdiv2D_1();
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -483,9 +491,21 @@ public class Subdiv2D {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -548,7 +568,14 @@ public class Subdiv2D {
     // C++:  void cv::Subdiv2D::insert(vector_Point2f ptvec)
     private static native void insert_1(long nativeObj, long ptvec_mat_nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            Subdiv2D.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -4,6 +4,7 @@
 package org.opencv.ml;
 
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.core.TermCriteria;
 import org.opencv.ml.ANN_MLP;
 import org.opencv.ml.StatModel;
@@ -520,8 +521,8 @@ public class ANN_MLP extends StatModel {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -626,7 +627,14 @@ public class ANN_MLP extends StatModel {
     private static native void setTrainMethod_1(long nativeObj, int method, double param1);
     private static native void setTrainMethod_2(long nativeObj, int method);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            ANN_MLP.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
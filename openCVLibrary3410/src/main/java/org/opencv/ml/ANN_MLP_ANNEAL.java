@@ -3,6 +3,7 @@
 //
 package org.opencv.ml;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.ml.ANN_MLP;
 
 // C++: class ANN_MLP_ANNEAL
@@ -123,8 +124,8 @@ public class ANN_MLP_ANNEAL extends ANN_MLP {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -153,7 +154,14 @@ public class ANN_MLP_ANNEAL extends ANN_MLP {
     // C++:  void cv::ml::ANN_MLP_ANNEAL::setAnnealItePerStep(int val)
     private static native void setAnnealItePerStep_0(long nativeObj, int val);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            ANN_MLP_ANNEAL.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -3,6 +3,7 @@
 //
 package org.opencv.ml;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.ml.Boost;
 import org.opencv.ml.DTrees;
 
@@ -154,8 +155,8 @@ public class Boost extends DTrees {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -185,7 +186,14 @@ public class Boost extends DTrees {
     // C++:  void cv::ml::Boost::setWeightTrimRate(double val)
     private static native void setWeightTrimRate_0(long nativeObj, double val);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            Boost.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
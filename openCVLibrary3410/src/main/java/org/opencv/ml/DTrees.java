@@ -4,6 +4,7 @@
 package org.opencv.ml;
 
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.ml.DTrees;
 import org.opencv.ml.StatModel;
 
@@ -319,8 +320,8 @@ public class DTrees extends StatModel {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -386,7 +387,14 @@ public class DTrees extends StatModel {
     // C++:  void cv::ml::DTrees::setUseSurrogates(bool val)
     private static native void setUseSurrogates_0(long nativeObj, boolean val);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            DTrees.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -4,6 +4,7 @@
 package org.opencv.ml;
 
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.ml.KNearest;
 import org.opencv.ml.StatModel;
 
@@ -262,8 +263,8 @@ public class KNearest extends StatModel {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -303,7 +304,14 @@ public class KNearest extends StatModel {
     // C++:  void cv::ml::KNearest::setIsClassifier(bool val)
     private static native void setIsClassifier_0(long nativeObj, boolean val);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            KNearest.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
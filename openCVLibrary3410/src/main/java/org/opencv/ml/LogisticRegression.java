@@ -4,6 +4,7 @@
 package org.opencv.ml;
 
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.core.TermCriteria;
 import org.opencv.ml.LogisticRegression;
 import org.opencv.ml.StatModel;
@@ -297,8 +298,8 @@ public class LogisticRegression extends StatModel {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -354,7 +355,14 @@ public class LogisticRegression extends StatModel {
     // C++:  void cv::ml::LogisticRegression::setTrainMethod(int val)
     private static native void setTrainMethod_0(long nativeObj, int val);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            LogisticRegression.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -3,6 +3,7 @@
 //
 package org.opencv.ml;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.ml.ParamGrid;
 
 // C++: class ParamGrid
@@ -12,10 +13,15 @@ import org.opencv.ml.ParamGrid;
  * It is used for optimizing statmodel accuracy by varying model parameters, the accuracy estimate
  * being computed by cross-validation.
  */
-public class ParamGrid {
+public class ParamGrid implements AutoCloseable {
 
     protected final long nativeObj;
-    protected ParamGrid(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected ParamGrid(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -123,9 +129,21 @@ public class ParamGrid {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -154,7 +172,14 @@ public class ParamGrid {
     // C++: void ParamGrid::logStep
     private static native void set_logStep_0(long nativeObj, double logStep);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            ParamGrid.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -6,6 +6,7 @@ package org.opencv.ml;
 import java.util.ArrayList;
 import java.util.List;
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.ml.TrainData;
 import org.opencv.utils.Converters;
 
@@ -20,10 +21,15 @@ import org.opencv.utils.Converters;
  *
  * SEE: REF: ml_intro_data
  */
-public class TrainData {
+public class TrainData implements AutoCloseable {
 
     protected final long nativeObj;
-    protected TrainData(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected TrainData(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -636,9 +642,21 @@ public class TrainData {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -769,7 +787,14 @@ public class TrainData {
     // C++:  void cv::ml::TrainData::shuffleTrainTest()
     private static native void shuffleTrainTest_0(long nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            TrainData.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
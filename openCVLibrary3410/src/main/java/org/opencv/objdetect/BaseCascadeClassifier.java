@@ -4,6 +4,7 @@
 package org.opencv.objdetect;
 
 import org.opencv.core.Algorithm;
+import org.opencv.core.NativeCleaner;
 
 // C++: class BaseCascadeClassifier
 
@@ -15,13 +16,20 @@ public class BaseCascadeClassifier extends Algorithm {
     public static BaseCascadeClassifier __fromPtr__(long addr) { return new BaseCascadeClassifier(addr); }
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            BaseCascadeClassifier.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -6,6 +6,7 @@ package org.opencv.objdetect;
 import java.util.ArrayList;
 import java.util.List;
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.utils.Converters;
 
 // C++: class QRCodeDetector
@@ -16,10 +17,15 @@ import org.opencv.utils.Converters;
  *     groupThreshold Minimum possible number of rectangles minus 1. The threshold is used in a group of rectangles to retain it.
  *     eps Relative difference between sides of the rectangles to merge them into a group.
  */
-public class QRCodeDetector {
+public class QRCodeDetector implements AutoCloseable {
 
     protected final long nativeObj;
-    protected QRCodeDetector(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected QRCodeDetector(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -32,6 +38,7 @@ public class QRCodeDetector {
 
     public QRCodeDetector() {
         nativeObj = QRCodeDetector_0();
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -235,9 +242,21 @@ public class QRCodeDetector {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -275,7 +294,14 @@ public class QRCodeDetector {
     // C++:  void cv::QRCodeDetector::setEpsY(double epsY)
     private static native void setEpsY_0(long nativeObj, double epsY);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            QRCodeDetector.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -6,6 +6,7 @@ package org.opencv.photo;
 import java.util.ArrayList;
 import java.util.List;
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.core.Point;
 import org.opencv.photo.AlignExposures;
 import org.opencv.utils.Converters;
@@ -160,8 +161,8 @@ public class AlignMTB extends AlignExposures {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -199,7 +200,14 @@ public class AlignMTB extends AlignExposures {
     // C++:  void cv::AlignMTB::shiftMat(Mat src, Mat& dst, Point shift)
     private static native void shiftMat_0(long nativeObj, long src_nativeObj, long dst_nativeObj, double shift_x, double shift_y);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            AlignMTB.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
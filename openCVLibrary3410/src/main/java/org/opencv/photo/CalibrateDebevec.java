@@ -3,6 +3,7 @@
 //
 package org.opencv.photo;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.photo.CalibrateCRF;
 
 // C++: class CalibrateDebevec
@@ -75,8 +76,8 @@ public class CalibrateDebevec extends CalibrateCRF {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -99,7 +100,14 @@ public class CalibrateDebevec extends CalibrateCRF {
     // C++:  void cv::CalibrateDebevec::setSamples(int samples)
     private static native void setSamples_0(long nativeObj, int samples);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            CalibrateDebevec.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
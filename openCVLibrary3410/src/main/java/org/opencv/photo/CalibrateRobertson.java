@@ -4,6 +4,7 @@
 package org.opencv.photo;
 
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.photo.CalibrateCRF;
 
 // C++: class CalibrateRobertson
@@ -66,8 +67,8 @@ public class CalibrateRobertson extends CalibrateCRF {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -87,7 +88,14 @@ public class CalibrateRobertson extends CalibrateCRF {
     // C++:  void cv::CalibrateRobertson::setThreshold(float threshold)
     private static native void setThreshold_0(long nativeObj, float threshold);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            CalibrateRobertson.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -6,6 +6,7 @@ package org.opencv.photo;
 import java.util.ArrayList;
 import java.util.List;
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.photo.MergeExposures;
 import org.opencv.utils.Converters;
 
@@ -110,8 +111,8 @@ public class MergeMertens extends MergeExposures {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -140,7 +141,14 @@ public class MergeMertens extends MergeExposures {
     // C++:  void cv::MergeMertens::setSaturationWeight(float saturation_weight)
     private static native void setSaturationWeight_0(long nativeObj, float saturation_weight);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            MergeMertens.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
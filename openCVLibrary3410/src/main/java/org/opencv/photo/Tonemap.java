@@ -5,6 +5,7 @@ package org.opencv.photo;
 
 import org.opencv.core.Algorithm;
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 
 // C++: class Tonemap
 /**
@@ -51,8 +52,8 @@ public class Tonemap extends Algorithm {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -66,7 +67,14 @@ public class Tonemap extends Algorithm {
     // C++:  void cv::Tonemap::setGamma(float gamma)
     private static native void setGamma_0(long nativeObj, float gamma);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            Tonemap.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -3,6 +3,7 @@
 //
 package org.opencv.photo;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.photo.Tonemap;
 
 // C++: class TonemapDrago
@@ -61,8 +62,8 @@ public class TonemapDrago extends Tonemap {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -79,7 +80,14 @@ public class TonemapDrago extends Tonemap {
     // C++:  void cv::TonemapDrago::setSaturation(float saturation)
     private static native void setSaturation_0(long nativeObj, float saturation);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            TonemapDrago.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -3,6 +3,7 @@
 //
 package org.opencv.photo;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.photo.Tonemap;
 
 // C++: class TonemapMantiuk
@@ -57,8 +58,8 @@ public class TonemapMantiuk extends Tonemap {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -75,7 +76,14 @@ public class TonemapMantiuk extends Tonemap {
     // C++:  void cv::TonemapMantiuk::setScale(float scale)
     private static native void setScale_0(long nativeObj, float scale);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            TonemapMantiuk.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -3,6 +3,7 @@
 //
 package org.opencv.photo;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.photo.Tonemap;
 
 // C++: class TonemapReinhard
@@ -76,8 +77,8 @@ public class TonemapReinhard extends Tonemap {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -100,7 +101,14 @@ public class TonemapReinhard extends Tonemap {
     // C++:  void cv::TonemapReinhard::setLightAdaptation(float light_adapt)
     private static native void setLightAdaptation_0(long nativeObj, float light_adapt);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            TonemapReinhard.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -809,4 +809,373 @@ public class Converters {
             rs.add(new RotatedRect(new Point(buff[5 * i], buff[5 * i + 1]), new Size(buff[5 * i + 2], buff[5 * i + 3]), buff[5 * i + 4]));
         }
     }
+
+    // Primitive array conversions.
+    // The counterparts of the List based conversions above which neither box the elements nor
+    // create an object per element. Structures are passed as one array per field, the output
+    // arrays and Mats are supplied by the caller and reused, the interleaved data is staged in a
+    // per-thread scratch buffer. The Mat_to_array_* methods return the element count and throw
+    // if an output array is too short, a null output array skips that field.
+    // The arrays may be longer than the element count, Mat.get()/put() copy at most the Mat size.
+
+    private static class Scratch {
+        /* the capacity is a multiple of every used channels count as required by Mat.get()/put() */
+        private static final int GRANULARITY = 84;
+
+        double[] doubles = new double[0];
+        int[] ints = new int[0];
+        float[] floats = new float[0];
+
+        double[] doubles(int size) {
+            if (doubles.length < size)
+                doubles = new double[capacity(size, doubles.length)];
+            return doubles;
+        }
+
+        int[] ints(int size) {
+            if (ints.length < size)
+                ints = new int[capacity(size, ints.length)];
+            return ints;
+        }
+
+        float[] floats(int size) {
+            if (floats.length < size)
+                floats = new float[capacity(size, floats.length)];
+            return floats;
+        }
+
+        private static int capacity(int size, int current) {
+            int capacity = Math.max(size, current * 2);
+            return (capacity + GRANULARITY - 1) / GRANULARITY * GRANULARITY;
+        }
+    }
+
+    private static final ThreadLocal<Scratch> sScratch = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    /**
+     * Writes count elements of the given channels from the scratch doubles to dst converting them
+     * to the depth, dst is reallocated only if its shape differs
+     */
+    private static void putDoubles(Scratch scratch, int count, int channels, int depth, Mat dst) {
+        dst.create(count, 1, CvType.makeType(depth, channels));
+        if (count == 0)
+            return;
+        int size = count * channels;
+        double[] src = scratch.doubles;
+        if (depth == CvType.CV_64F) {
+            dst.put(0, 0, src);
+        } else if (depth == CvType.CV_32F) {
+            float[] buff = scratch.floats(size);
+            for (int i = 0; i < size; i++)
+                buff[i] = (float) src[i];
+            dst.put(0, 0, buff);
+        } else if (depth == CvType.CV_32S) {
+            int[] buff = scratch.ints(size);
+            for (int i = 0; i < size; i++)
+                buff[i] = (int) src[i];
+            dst.put(0, 0, buff);
+        } else {
+            throw new IllegalArgumentException("Depth should be CV_32S, CV_32F or CV_64F: " + depth);
+        }
+    }
+
+    /**
+     * Reads a one column CV_32S, CV_32F or CV_64F Mat with the given channels into the scratch doubles
+     * @return the element count
+     */
+    private static int getDoubles(Mat m, int channels, Scratch scratch) {
+        int depth = m.depth();
+        if (m.cols() != 1 || m.channels() != channels
+                || (depth != CvType.CV_32S && depth != CvType.CV_32F && depth != CvType.CV_64F))
+            throw new IllegalArgumentException(
+                    "Input Mat should have one column of CV_32SC" + channels + ", CV_32FC" + channels
+                    + " or CV_64FC" + channels + " type\n" + m);
+        int count = m.rows();
+        int size = count * channels;
+        double[] dst = scratch.doubles(size);
+        if (count == 0)
+            return 0;
+        if (depth == CvType.CV_64F) {
+            m.get(0, 0, dst);
+        } else if (depth == CvType.CV_32F) {
+            float[] buff = scratch.floats(size);
+            m.get(0, 0, buff);
+            for (int i = 0; i < size; i++)
+                dst[i] = buff[i];
+        } else {
+            int[] buff = scratch.ints(size);
+            m.get(0, 0, buff);
+            for (int i = 0; i < size; i++)
+                dst[i] = buff[i];
+        }
+        return count;
+    }
+
+    private static void checkLength(float[] a, int count) {
+        if (a != null && a.length < count)
+            throw new IllegalArgumentException("Output array is too short: " + a.length + " < " + count);
+    }
+
+    private static void checkLength(int[] a, int count) {
+        if (a != null && a.length < count)
+            throw new IllegalArgumentException("Output array is too short: " + a.length + " < " + count);
+    }
+
+    public static void array_Point_to_Mat(float[] xs, float[] ys, int count, int typeDepth, Mat dst) {
+        Scratch scratch = sScratch.get();
+        double[] buff = scratch.doubles(2 * count);
+        for (int i = 0; i < count; i++) {
+            buff[2 * i] = xs[i];
+            buff[2 * i + 1] = ys[i];
+        }
+        putDoubles(scratch, count, 2, typeDepth, dst);
+    }
+
+    public static int Mat_to_array_Point(Mat m, float[] xs, float[] ys) {
+        Scratch scratch = sScratch.get();
+        int count = getDoubles(m, 2, scratch);
+        checkLength(xs, count);
+        checkLength(ys, count);
+        double[] buff = scratch.doubles;
+        for (int i = 0; i < count; i++) {
+            if (xs != null) xs[i] = (float) buff[2 * i];
+            if (ys != null) ys[i] = (float) buff[2 * i + 1];
+        }
+        return count;
+    }
+
+    public static void array_Point3_to_Mat(float[] xs, float[] ys, float[] zs, int count, int typeDepth, Mat dst) {
+        Scratch scratch = sScratch.get();
+        double[] buff = scratch.doubles(3 * count);
+        for (int i = 0; i < count; i++) {
+            buff[3 * i] = xs[i];
+            buff[3 * i + 1] = ys[i];
+            buff[3 * i + 2] = zs[i];
+        }
+        putDoubles(scratch, count, 3, typeDepth, dst);
+    }
+
+    public static int Mat_to_array_Point3(Mat m, float[] xs, float[] ys, float[] zs) {
+        Scratch scratch = sScratch.get();
+        int count = getDoubles(m, 3, scratch);
+        checkLength(xs, count);
+        checkLength(ys, count);
+        checkLength(zs, count);
+        double[] buff = scratch.doubles;
+        for (int i = 0; i < count; i++) {
+            if (xs != null) xs[i] = (float) buff[3 * i];
+            if (ys != null) ys[i] = (float) buff[3 * i + 1];
+            if (zs != null) zs[i] = (float) buff[3 * i + 2];
+        }
+        return count;
+    }
+
+    public static void array_float_to_Mat(float[] fs, int count, Mat dst) {
+        dst.create(count, 1, CvType.CV_32FC1);
+        if (count > 0)
+            dst.put(0, 0, fs);
+    }
+
+    public static int Mat_to_array_float(Mat m, float[] fs) {
+        if (CvType.CV_32FC1 != m.type() || m.cols() != 1)
+            throw new IllegalArgumentException(
+                    "CvType.CV_32FC1 != m.type() ||  m.cols()!=1\n" + m);
+        int count = m.rows();
+        checkLength(fs, count);
+        if (count > 0)
+            m.get(0, 0, fs);
+        return count;
+    }
+
+    public static void array_int_to_Mat(int[] is, int count, Mat dst) {
+        dst.create(count, 1, CvType.CV_32SC1);
+        if (count > 0)
+            dst.put(0, 0, is);
+    }
+
+    public static int Mat_to_array_int(Mat m, int[] is) {
+        if (CvType.CV_32SC1 != m.type() || m.cols() != 1)
+            throw new IllegalArgumentException(
+                    "CvType.CV_32SC1 != m.type() ||  m.cols()!=1\n" + m);
+        int count = m.rows();
+        checkLength(is, count);
+        if (count > 0)
+            m.get(0, 0, is);
+        return count;
+    }
+
+    public static void array_double_to_Mat(double[] ds, int count, Mat dst) {
+        dst.create(count, 1, CvType.CV_64FC1);
+        if (count > 0)
+            dst.put(0, 0, ds);
+    }
+
+    public static int Mat_to_array_double(Mat m, double[] ds) {
+        if (CvType.CV_64FC1 != m.type() || m.cols() != 1)
+            throw new IllegalArgumentException(
+                    "CvType.CV_64FC1 != m.type() ||  m.cols()!=1\n" + m);
+        int count = m.rows();
+        if (ds.length < count)
+            throw new IllegalArgumentException("Output array is too short: " + ds.length + " < " + count);
+        if (count > 0)
+            m.get(0, 0, ds);
+        return count;
+    }
+
+    public static void array_uchar_to_Mat(byte[] bs, int count, Mat dst) {
+        array_byte_to_Mat(bs, count, CvType.CV_8UC1, dst);
+    }
+
+    public static void array_char_to_Mat(byte[] bs, int count, Mat dst) {
+        array_byte_to_Mat(bs, count, CvType.CV_8SC1, dst);
+    }
+
+    private static void array_byte_to_Mat(byte[] bs, int count, int type, Mat dst) {
+        dst.create(count, 1, type);
+        if (count > 0)
+            dst.put(0, 0, bs);
+    }
+
+    public static int Mat_to_array_uchar(Mat m, byte[] bs) {
+        return Mat_to_array_byte(m, CvType.CV_8UC1, bs);
+    }
+
+    public static int Mat_to_array_char(Mat m, byte[] bs) {
+        return Mat_to_array_byte(m, CvType.CV_8SC1, bs);
+    }
+
+    private static int Mat_to_array_byte(Mat m, int type, byte[] bs) {
+        if (type != m.type() || m.cols() != 1)
+            throw new IllegalArgumentException(
+                    CvType.typeToString(type) + " != m.type() ||  m.cols()!=1\n" + m);
+        int count = m.rows();
+        if (bs.length < count)
+            throw new IllegalArgumentException("Output array is too short: " + bs.length + " < " + count);
+        if (count > 0)
+            m.get(0, 0, bs);
+        return count;
+    }
+
+    /**
+     * @param packed - x, y, width and height of every rect
+     */
+    public static void array_Rect_to_Mat(int[] packed, int count, Mat dst) {
+        dst.create(count, 1, CvType.CV_32SC4);
+        if (count > 0)
+            dst.put(0, 0, packed.length % 4 == 0 ? packed : copyOf(packed, 4 * count));
+    }
+
+    /**
+     * @param packed - receives x, y, width and height of every rect
+     */
+    public static int Mat_to_array_Rect(Mat m, int[] packed) {
+        if (CvType.CV_32SC4 != m.type() || m.cols() != 1)
+            throw new IllegalArgumentException(
+                    "CvType.CV_32SC4 != m.type() ||  m.cols()!=1\n" + m);
+        int count = m.rows();
+        checkLength(packed, 4 * count);
+        if (count == 0)
+            return 0;
+        if (packed.length % 4 == 0) {
+            m.get(0, 0, packed);
+        } else {
+            int[] buff = sScratch.get().ints(4 * count);
+            m.get(0, 0, buff);
+            System.arraycopy(buff, 0, packed, 0, 4 * count);
+        }
+        return count;
+    }
+
+    /**
+     * @param typeDepth - CV_32F for MatOfKeyPoint, CV_64F for vector_KeyPoint_to_Mat() compatible Mats
+     */
+    public static void array_KeyPoint_to_Mat(float[] xs, float[] ys, float[] sizes, float[] angles,
+            float[] responses, int[] octaves, int[] classIds, int count, int typeDepth, Mat dst) {
+        Scratch scratch = sScratch.get();
+        double[] buff = scratch.doubles(7 * count);
+        for (int i = 0; i < count; i++) {
+            buff[7 * i] = xs[i];
+            buff[7 * i + 1] = ys[i];
+            buff[7 * i + 2] = sizes[i];
+            buff[7 * i + 3] = angles != null ? angles[i] : -1;
+            buff[7 * i + 4] = responses != null ? responses[i] : 0;
+            buff[7 * i + 5] = octaves != null ? octaves[i] : 0;
+            buff[7 * i + 6] = classIds != null ? classIds[i] : -1;
+        }
+        putDoubles(scratch, count, 7, typeDepth, dst);
+    }
+
+    /**
+     * Reads both MatOfKeyPoint (CV_32FC7) and vector_KeyPoint_to_Mat() (CV_64FC7) Mats
+     */
+    public static int Mat_to_array_KeyPoint(Mat m, float[] xs, float[] ys, float[] sizes, float[] angles,
+            float[] responses, int[] octaves, int[] classIds) {
+        Scratch scratch = sScratch.get();
+        int count = getDoubles(m, 7, scratch);
+        checkLength(xs, count);
+        checkLength(ys, count);
+        checkLength(sizes, count);
+        checkLength(angles, count);
+        checkLength(responses, count);
+        checkLength(octaves, count);
+        checkLength(classIds, count);
+        double[] buff = scratch.doubles;
+        for (int i = 0; i < count; i++) {
+            if (xs != null) xs[i] = (float) buff[7 * i];
+            if (ys != null) ys[i] = (float) buff[7 * i + 1];
+            if (sizes != null) sizes[i] = (float) buff[7 * i + 2];
+            if (angles != null) angles[i] = (float) buff[7 * i + 3];
+            if (responses != null) responses[i] = (float) buff[7 * i + 4];
+            if (octaves != null) octaves[i] = (int) buff[7 * i + 5];
+            if (classIds != null) classIds[i] = (int) buff[7 * i + 6];
+        }
+        return count;
+    }
+
+    /**
+     * @param typeDepth - CV_32F for MatOfDMatch, CV_64F for vector_DMatch_to_Mat() compatible Mats
+     */
+    public static void array_DMatch_to_Mat(int[] queryIdx, int[] trainIdx, int[] imgIdx, float[] distances,
+            int count, int typeDepth, Mat dst) {
+        Scratch scratch = sScratch.get();
+        double[] buff = scratch.doubles(4 * count);
+        for (int i = 0; i < count; i++) {
+            buff[4 * i] = queryIdx[i];
+            buff[4 * i + 1] = trainIdx[i];
+            buff[4 * i + 2] = imgIdx != null ? imgIdx[i] : -1;
+            buff[4 * i + 3] = distances[i];
+        }
+        putDoubles(scratch, count, 4, typeDepth, dst);
+    }
+
+    /**
+     * Reads both MatOfDMatch (CV_32FC4) and vector_DMatch_to_Mat() (CV_64FC4) Mats
+     */
+    public static int Mat_to_array_DMatch(Mat m, int[] queryIdx, int[] trainIdx, int[] imgIdx, float[] distances) {
+        Scratch scratch = sScratch.get();
+        int count = getDoubles(m, 4, scratch);
+        checkLength(queryIdx, count);
+        checkLength(trainIdx, count);
+        checkLength(imgIdx, count);
+        checkLength(distances, count);
+        double[] buff = scratch.doubles;
+        for (int i = 0; i < count; i++) {
+            if (queryIdx != null) queryIdx[i] = (int) buff[4 * i];
+            if (trainIdx != null) trainIdx[i] = (int) buff[4 * i + 1];
+            if (imgIdx != null) imgIdx[i] = (int) buff[4 * i + 2];
+            if (distances != null) distances[i] = (float) buff[4 * i + 3];
+        }
+        return count;
+    }
+
+    private static int[] copyOf(int[] a, int count) {
+        int[] buff = sScratch.get().ints(count);
+        System.arraycopy(a, 0, buff, 0, count);
+        return buff;
+    }
 }
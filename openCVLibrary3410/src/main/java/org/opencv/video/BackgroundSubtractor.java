@@ -5,6 +5,7 @@ package org.opencv.video;
 
 import org.opencv.core.Algorithm;
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 
 // C++: class BackgroundSubtractor
 /**
@@ -70,8 +71,8 @@ public class BackgroundSubtractor extends Algorithm {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -83,7 +84,14 @@ public class BackgroundSubtractor extends Algorithm {
     // C++:  void cv::BackgroundSubtractor::getBackgroundImage(Mat& backgroundImage)
     private static native void getBackgroundImage_0(long nativeObj, long backgroundImage_nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            BackgroundSubtractor.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -3,6 +3,7 @@
 //
 package org.opencv.video;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.video.BackgroundSubtractor;
 
 // C++: class BackgroundSubtractorKNN
@@ -221,8 +222,8 @@ public class BackgroundSubtractorKNN extends BackgroundSubtractor {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -269,7 +270,14 @@ public class BackgroundSubtractorKNN extends BackgroundSubtractor {
     // C++:  void cv::BackgroundSubtractorKNN::setkNNSamples(int _nkNN)
     private static native void setkNNSamples_0(long nativeObj, int _nkNN);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            BackgroundSubtractorKNN.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
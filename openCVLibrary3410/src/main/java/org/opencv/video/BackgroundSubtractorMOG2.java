@@ -4,6 +4,7 @@
 package org.opencv.video;
 
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.video.BackgroundSubtractor;
 
 // C++: class BackgroundSubtractorMOG2
@@ -379,8 +380,8 @@ public class BackgroundSubtractorMOG2 extends BackgroundSubtractor {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -461,7 +462,14 @@ public class BackgroundSubtractorMOG2 extends BackgroundSubtractor {
     // C++:  void cv::BackgroundSubtractorMOG2::setVarThresholdGen(double varThresholdGen)
     private static native void setVarThresholdGen_0(long nativeObj, double varThresholdGen);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            BackgroundSubtractorMOG2.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -3,6 +3,7 @@
 //
 package org.opencv.video;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.video.DenseOpticalFlow;
 import org.opencv.video.DualTVL1OpticalFlow;
 
@@ -585,8 +586,8 @@ public class DualTVL1OpticalFlow extends DenseOpticalFlow {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -678,7 +679,14 @@ public class DualTVL1OpticalFlow extends DenseOpticalFlow {
     // C++:  void cv::DualTVL1OpticalFlow::setWarpingsNumber(int val)
     private static native void setWarpingsNumber_0(long nativeObj, int val);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            DualTVL1OpticalFlow.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
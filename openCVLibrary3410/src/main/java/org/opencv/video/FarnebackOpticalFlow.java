@@ -3,6 +3,7 @@
 //
 package org.opencv.video;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.video.DenseOpticalFlow;
 import org.opencv.video.FarnebackOpticalFlow;
 
@@ -203,8 +204,8 @@ public class FarnebackOpticalFlow extends DenseOpticalFlow {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -268,7 +269,14 @@ public class FarnebackOpticalFlow extends DenseOpticalFlow {
     // C++:  void cv::FarnebackOpticalFlow::setWinSize(int winSize)
     private static native void setWinSize_0(long nativeObj, int winSize);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            FarnebackOpticalFlow.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
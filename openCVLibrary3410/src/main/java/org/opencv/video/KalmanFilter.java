@@ -4,6 +4,7 @@
 package org.opencv.video;
 
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 
 // C++: class KalmanFilter
 /**
@@ -15,10 +16,15 @@ import org.opencv.core.Mat;
  * <b>Note:</b> In C API when CvKalman\* kalmanFilter structure is not needed anymore, it should be released
  * with cvReleaseKalman(&amp;kalmanFilter)
  */
-public class KalmanFilter {
+public class KalmanFilter implements AutoCloseable {
 
     protected final long nativeObj;
-    protected KalmanFilter(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected KalmanFilter(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -38,6 +44,7 @@ public class KalmanFilter {
      */
     public KalmanFilter(int dynamParams, int measureParams, int controlParams, int type) {
         nativeObj = KalmanFilter_0(dynamParams, measureParams, controlParams, type);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
     /**
@@ -48,6 +55,7 @@ public class KalmanFilter {
      */
     public KalmanFilter(int dynamParams, int measureParams, int controlParams) {
         nativeObj = KalmanFilter_1(dynamParams, measureParams, controlParams);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
     /**
@@ -57,6 +65,7 @@ public class KalmanFilter {
      */
     public KalmanFilter(int dynamParams, int measureParams) {
         nativeObj = KalmanFilter_2(dynamParams, measureParams);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -66,6 +75,7 @@ public class KalmanFilter {
 
     public KalmanFilter() {
         nativeObj = KalmanFilter_3();
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -288,9 +298,21 @@ public class KalmanFilter {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -370,7 +392,14 @@ public class KalmanFilter {
     // C++: void KalmanFilter::errorCovPost
     private static native void set_errorCovPost_0(long nativeObj, long errorCovPost_nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            KalmanFilter.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
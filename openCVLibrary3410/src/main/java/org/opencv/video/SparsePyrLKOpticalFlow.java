@@ -3,6 +3,7 @@
 //
 package org.opencv.video;
 
+import org.opencv.core.NativeCleaner;
 import org.opencv.core.Size;
 import org.opencv.core.TermCriteria;
 import org.opencv.video.SparseOpticalFlow;
@@ -144,8 +145,8 @@ public class SparsePyrLKOpticalFlow extends SparseOpticalFlow {
 
 
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -188,7 +189,14 @@ public class SparsePyrLKOpticalFlow extends SparseOpticalFlow {
     // C++:  void cv::SparsePyrLKOpticalFlow::setWinSize(Size winSize)
     private static native void setWinSize_0(long nativeObj, double winSize_width, double winSize_height);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            SparsePyrLKOpticalFlow.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
@@ -4,6 +4,7 @@
 package org.opencv.videoio;
 
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 
 // C++: class VideoCapture
 /**
@@ -35,10 +36,15 @@ import org.opencv.core.Mat;
  *   </li>
  * </ul>
  */
-public class VideoCapture {
+public class VideoCapture implements AutoCloseable {
 
     protected final long nativeObj;
-    protected VideoCapture(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected VideoCapture(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -77,6 +83,7 @@ public class VideoCapture {
      */
     public VideoCapture(String filename, int apiPreference) {
         nativeObj = VideoCapture_0(filename, apiPreference);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -93,6 +100,7 @@ public class VideoCapture {
      */
     public VideoCapture(String filename) {
         nativeObj = VideoCapture_1(filename);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -113,6 +121,7 @@ public class VideoCapture {
      */
     public VideoCapture(int index, int apiPreference) {
         nativeObj = VideoCapture_2(index, apiPreference);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -132,6 +141,7 @@ public class VideoCapture {
      */
     public VideoCapture(int index) {
         nativeObj = VideoCapture_3(index);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -147,6 +157,7 @@ public class VideoCapture {
      */
     public VideoCapture() {
         nativeObj = VideoCapture_4();
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -423,9 +434,21 @@ public class VideoCapture {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -482,7 +505,14 @@ public class VideoCapture {
     // C++:  void cv::VideoCapture::release()
     private static native void release_0(long nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            VideoCapture.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }
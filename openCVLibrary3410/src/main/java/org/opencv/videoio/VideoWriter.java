@@ -4,6 +4,7 @@
 package org.opencv.videoio;
 
 import org.opencv.core.Mat;
+import org.opencv.core.NativeCleaner;
 import org.opencv.core.Size;
 
 // C++: class VideoWriter
@@ -12,10 +13,15 @@ import org.opencv.core.Size;
  *
  * The class provides C++ API for writing video files or image sequences.
  */
-public class VideoWriter {
+public class VideoWriter implements AutoCloseable {
 
     protected final long nativeObj;
-    protected VideoWriter(long addr) { nativeObj = addr; }
+    private final NativeCleaner.Handle mCleanerHandle;
+
+    protected VideoWriter(long addr) {
+        nativeObj = addr;
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
+    }
 
     public long getNativeObjAddr() { return nativeObj; }
 
@@ -39,6 +45,7 @@ public class VideoWriter {
      */
     public VideoWriter(String filename, int apiPreference, int fourcc, double fps, Size frameSize, boolean isColor) {
         nativeObj = VideoWriter_0(filename, apiPreference, fourcc, fps, frameSize.width, frameSize.height, isColor);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
     /**
@@ -53,6 +60,7 @@ public class VideoWriter {
      */
     public VideoWriter(String filename, int apiPreference, int fourcc, double fps, Size frameSize) {
         nativeObj = VideoWriter_1(filename, apiPreference, fourcc, fps, frameSize.width, frameSize.height);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -94,6 +102,7 @@ public class VideoWriter {
      */
     public VideoWriter(String filename, int fourcc, double fps, Size frameSize, boolean isColor) {
         nativeObj = VideoWriter_2(filename, fourcc, fps, frameSize.width, frameSize.height, isColor);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
     /**
@@ -129,6 +138,7 @@ public class VideoWriter {
      */
     public VideoWriter(String filename, int fourcc, double fps, Size frameSize) {
         nativeObj = VideoWriter_3(filename, fourcc, fps, frameSize.width, frameSize.height);
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -154,6 +164,7 @@ public class VideoWriter {
      */
     public VideoWriter() {
         nativeObj = VideoWriter_4();
+        mCleanerHandle = NativeCleaner.register(this, nativeObj, deleter());
     }
 
 
@@ -327,9 +338,21 @@ public class VideoWriter {
     }
 
 
+    /**
+     * Deletes the native object immediately instead of waiting for the garbage collector.
+     * The object shall not be used after this call.
+     */
     @Override
-    protected void finalize() throws Throwable {
-        delete(nativeObj);
+    public void close() {
+        if (mCleanerHandle != null)
+            mCleanerHandle.close();
+    }
+
+    /**
+     * Returns the native delete function of the most derived class, see NativeCleaner
+     */
+    protected NativeCleaner.Deleter deleter() {
+        return DELETER;
     }
 
 
@@ -374,7 +397,14 @@ public class VideoWriter {
     // C++:  void cv::VideoWriter::write(Mat image)
     private static native void write_0(long nativeObj, long image_nativeObj);
 
-    // native support for java finalize()
+    private static final NativeCleaner.Deleter DELETER = new NativeCleaner.Deleter() {
+        @Override
+        public void delete(long nativeObj) {
+            VideoWriter.delete(nativeObj);
+        }
+    };
+
+    // native support for NativeCleaner
     private static native void delete(long nativeObj);
 
 }